@@ -0,0 +1,123 @@
+package com.ntrovote;
+
+import com.ntrovote.model.Election;
+import com.ntrovote.model.Nominee;
+import com.ntrovote.service.ElectionService;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+// Boots the backend against a private in-memory H2 database and seeds it with
+// set-based H2 inserts, which load a million rows in seconds.
+// JMH_DATASOURCE_URL (with JMH_DATASOURCE_USERNAME / _PASSWORD) points the run at
+// a MySQL server instead. H2 commits cost nothing, so write benchmarks such as
+// direct vs batched ingestion only show the commit-rate ceiling there. Give it
+// a scratch schema: the tables are created and dropped on every run.
+public final class BenchmarkContext {
+
+    public static final long FIRST_PHONE = 7000000000L;
+
+    // Phone key of phone(0): country code 91 followed by the ten national digits
+    private static final long FIRST_KEY = 910000000000L + FIRST_PHONE;
+
+    private static final String EXTERNAL_URL = System.getenv("JMH_DATASOURCE_URL");
+
+    private static final int SEED_BATCH = 10_000;
+
+    private BenchmarkContext() {
+    }
+
+    // Overrides go in as command-line arguments: builder properties are only
+    // defaults, and application-jmh.properties would win over them
+    public static ConfigurableApplicationContext start(String... properties) {
+        List<String> args = new ArrayList<>();
+        if (EXTERNAL_URL == null) {
+            args.add("--spring.datasource.url=jdbc:h2:mem:jmh-" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+        } else {
+            args.add("--spring.datasource.url=" + EXTERNAL_URL);
+            args.add("--spring.datasource.username=" + System.getenv().getOrDefault("JMH_DATASOURCE_USERNAME", ""));
+            args.add("--spring.datasource.password=" + System.getenv().getOrDefault("JMH_DATASOURCE_PASSWORD", ""));
+            args.add("--spring.datasource.driver-class-name=com.mysql.cj.jdbc.Driver");
+            args.add("--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.MySQLDialect");
+        }
+        for (String property : properties) {
+            args.add("--" + property);
+        }
+        return new SpringApplicationBuilder(NtroVoteApplication.class)
+                .profiles("jmh")
+                .run(args.toArray(String[]::new));
+    }
+
+    public static String phone(long index) {
+        return "+91" + (FIRST_PHONE + index);
+    }
+
+    // Returns {electionId, firstNomineeId}
+    public static long[] createElection(ConfigurableApplicationContext context, String title, int nominees) {
+        ElectionService electionService = context.getBean(ElectionService.class);
+        Election election = new Election();
+        election.setTitle(title);
+        election = electionService.createElection(election);
+        long firstNominee = 0;
+        for (int i = 0; i < nominees; i++) {
+            Nominee nominee = new Nominee();
+            nominee.setName("Nominee " + i);
+            nominee = electionService.addNominee(election.getId(), nominee);
+            if (i == 0) {
+                firstNominee = nominee.getId();
+            }
+        }
+        return new long[] { election.getId(), firstNominee };
+    }
+
+    // Users 0..count-1 with phones from phone(index)
+    public static void insertUsers(ConfigurableApplicationContext context, int count) {
+        if (EXTERNAL_URL != null) {
+            insertRows(context, "INSERT INTO users (phone, phone_key, created_at) VALUES (?, ?, CURRENT_TIMESTAMP)",
+                    count, (ps, index) -> {
+                        ps.setString(1, "+" + (FIRST_KEY + index));
+                        ps.setLong(2, FIRST_KEY + index);
+                    });
+            return;
+        }
+        context.getBean(JdbcTemplate.class).update(
+                "INSERT INTO users (phone, phone_key, created_at) "
+                        + "SELECT CONCAT('+', ? + X - 1), ? + X - 1, CURRENT_TIMESTAMP FROM SYSTEM_RANGE(1, ?)",
+                FIRST_KEY, FIRST_KEY, count);
+    }
+
+    public static void insertEligibleVoters(ConfigurableApplicationContext context, int count) {
+        if (EXTERNAL_URL != null) {
+            insertRows(context, "INSERT INTO eligible_voters (phone_number, phone_key, name) VALUES (?, ?, ?)",
+                    count, (ps, index) -> {
+                        ps.setString(1, "+" + (FIRST_KEY + index));
+                        ps.setLong(2, FIRST_KEY + index);
+                        ps.setString(3, "Voter " + (index + 1));
+                    });
+            return;
+        }
+        context.getBean(JdbcTemplate.class).update(
+                "INSERT INTO eligible_voters (phone_number, phone_key, name) "
+                        + "SELECT CONCAT('+', ? + X - 1), ? + X - 1, CONCAT('Voter ', X) "
+                        + "FROM SYSTEM_RANGE(1, ?)",
+                FIRST_KEY, FIRST_KEY, count);
+    }
+
+    // Portable seeding for an external server, one JDBC batch per SEED_BATCH rows
+    private static void insertRows(ConfigurableApplicationContext context, String sql, int count,
+            ParameterizedPreparedStatementSetter<Long> row) {
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        for (long start = 0; start < count; start += SEED_BATCH) {
+            List<Long> indexes = new ArrayList<>();
+            for (long index = start; index < Math.min(count, start + SEED_BATCH); index++) {
+                indexes.add(index);
+            }
+            jdbcTemplate.batchUpdate(sql, indexes, SEED_BATCH, row);
+        }
+    }
+}
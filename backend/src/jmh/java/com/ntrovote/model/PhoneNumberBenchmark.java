@@ -0,0 +1,29 @@
+package com.ntrovote.model;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PhoneNumberBenchmark {
+
+    // The shapes users actually type into the login form
+    @Param({ "9876543210", "+919876543210", "+91 98765 43210", "098765-43210" })
+    public String phone;
+
+    @Benchmark
+    public long toKey() {
+        return PhoneNumber.toKey(phone);
+    }
+
+    // What every authenticated request pays to turn the JWT subject back into a key
+    @Benchmark
+    public PhoneNumber parse() {
+        return PhoneNumber.parse(phone);
+    }
+}
@@ -0,0 +1,127 @@
+package com.ntrovote.repository;
+
+import com.ntrovote.BenchmarkContext;
+import com.ntrovote.metrics.QueryCounter;
+import com.ntrovote.model.Vote;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+// Reading every vote of one election as (id, userId, phone, nomineeId, votedAt).
+// eagerGraph is what the old EAGER mapping cost at best (one join-fetch query,
+// full entities); lazyEntities is the N+1 trap lazy associations open up;
+// projection is VoteRepository.findRowsByElectionId. Compare gc.alloc.rate.norm
+// for memory per call; statements per call are printed at the end of each trial.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class VoteReadBenchmark {
+
+    private static final int PAGE_SIZE = 1000;
+
+    @Param({ "1000", "10000" })
+    public int votes;
+
+    private ConfigurableApplicationContext context;
+
+    private VoteRepository voteRepository;
+
+    private EntityManager entityManager;
+
+    private TransactionTemplate readOnly;
+
+    private long electionId;
+
+    private long calls;
+
+    private long statements;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkContext.start();
+        voteRepository = context.getBean(VoteRepository.class);
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(
+                context.getBean(EntityManagerFactory.class));
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+        long[] election = BenchmarkContext.createElection(context, "Reads", 5);
+        electionId = election[0];
+        BenchmarkContext.insertUsers(context, votes);
+        context.getBean(JdbcTemplate.class).update(
+                "INSERT INTO votes (user_id, election_id, nominee_id, voted_at) "
+                        + "SELECT id, ?, ? + MOD(id, 5), CURRENT_TIMESTAMP FROM users",
+                electionId, election[1]);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.out.println();
+        System.out.println("statements per call: " + (calls == 0 ? 0 : statements / calls));
+        context.close();
+    }
+
+    @Benchmark
+    public List<VoteRow> eagerGraph() {
+        return counted(() -> toRows(entityManager.createQuery(
+                "SELECT v FROM Vote v JOIN FETCH v.user JOIN FETCH v.election JOIN FETCH v.nominee "
+                        + "WHERE v.election.id = :electionId ORDER BY v.id", Vote.class)
+                .setParameter("electionId", electionId)
+                .getResultList()));
+    }
+
+    @Benchmark
+    public List<VoteRow> lazyEntities() {
+        return counted(() -> toRows(entityManager.createQuery(
+                "SELECT v FROM Vote v WHERE v.election.id = :electionId ORDER BY v.id", Vote.class)
+                .setParameter("electionId", electionId)
+                .getResultList()));
+    }
+
+    @Benchmark
+    public List<VoteRow> projection() {
+        return counted(() -> {
+            List<VoteRow> rows = new ArrayList<>(votes);
+            long afterId = 0;
+            while (true) {
+                List<VoteRow> page = voteRepository.findRowsByElectionId(electionId, afterId,
+                        PageRequest.of(0, PAGE_SIZE));
+                rows.addAll(page);
+                if (page.size() < PAGE_SIZE) {
+                    return rows;
+                }
+                afterId = page.get(page.size() - 1).id();
+            }
+        });
+    }
+
+    private List<VoteRow> counted(Supplier<List<VoteRow>> read) {
+        QueryCounter.reset();
+        List<VoteRow> rows = readOnly.execute(tx -> read.get());
+        statements += QueryCounter.current();
+        calls++;
+        return rows;
+    }
+
+    private static List<VoteRow> toRows(List<Vote> entities) {
+        List<VoteRow> rows = new ArrayList<>(entities.size());
+        for (Vote vote : entities) {
+            rows.add(new VoteRow(vote.getId(), vote.getUser().getId(), vote.getUser().getPhone(),
+                    vote.getNominee().getId(), vote.getVotedAt()));
+        }
+        return rows;
+    }
+}
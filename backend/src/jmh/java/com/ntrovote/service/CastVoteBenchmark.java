@@ -0,0 +1,67 @@
+package com.ntrovote.service;
+
+import com.ntrovote.BenchmarkContext;
+import com.ntrovote.model.Vote;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// VoteService.castVote on embedded H2: a fresh voter per call, plus the
+// in-memory rejection of a repeat vote
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class CastVoteBenchmark {
+
+    private static final int USERS = 100_000;
+
+    private static final int ELECTIONS = 20;
+
+    private ConfigurableApplicationContext context;
+
+    private VoteService voteService;
+
+    private long[][] elections;
+
+    private final AtomicLong next = new AtomicLong(1);
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkContext.start();
+        voteService = context.getBean(VoteService.class);
+        elections = new long[ELECTIONS][];
+        for (int i = 0; i < ELECTIONS; i++) {
+            elections[i] = BenchmarkContext.createElection(context, "Election " + i, 3);
+        }
+        BenchmarkContext.insertUsers(context, USERS);
+        // Voter 0 has already voted in the first election
+        voteService.castVote(BenchmarkContext.phone(0), elections[0][0], elections[0][1]);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Vote castVote() {
+        // Each (voter, election) pair is used once; 2M pairs outlast the run
+        long n = next.getAndIncrement();
+        long[] election = elections[(int) (n / USERS) % ELECTIONS];
+        return voteService.castVote(BenchmarkContext.phone(n % USERS), election[0], election[1]);
+    }
+
+    @Benchmark
+    public Object rejectRepeatVote() {
+        try {
+            return voteService.castVote(BenchmarkContext.phone(0), elections[0][0], elections[0][1]);
+        } catch (RuntimeException e) {
+            return e;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.ntrovote.service;
+
+import com.ntrovote.BenchmarkContext;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Concurrent voters against the direct path (one transaction per vote) and the
+// group-commit pipeline (vote.ingest.mode=batched). Every call is a first vote:
+// each iteration votes in fresh elections, so no (user, election) pair repeats
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(16)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class VoteIngestBenchmark {
+
+    private static final int USERS = 100_000;
+
+    private static final int ELECTIONS = 20;
+
+    @Param({ "direct", "batched" })
+    public String mode;
+
+    private ConfigurableApplicationContext context;
+
+    private VoteService voteService;
+
+    private VoteIngestPipeline pipeline;
+
+    private long[][] elections;
+
+    private final AtomicLong next = new AtomicLong();
+
+    private int iteration;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkContext.start("vote.ingest.mode=" + mode);
+        voteService = context.getBean(VoteService.class);
+        pipeline = context.getBean(VoteIngestPipeline.class);
+        if (pipeline.isEnabled() != mode.equals("batched")) {
+            throw new IllegalStateException("vote.ingest.mode=" + mode + " was not applied");
+        }
+        BenchmarkContext.insertUsers(context, USERS);
+    }
+
+    @Setup(Level.Iteration)
+    public void newElections() {
+        iteration++;
+        elections = new long[ELECTIONS][];
+        for (int i = 0; i < ELECTIONS; i++) {
+            elections[i] = BenchmarkContext.createElection(context, "Iteration " + iteration + " election " + i, 3);
+        }
+        next.set(0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void castVote() {
+        long n = next.getAndIncrement();
+        // Wrapping around would measure "Already voted" rejections instead of votes
+        if (n >= (long) USERS * ELECTIONS) {
+            throw new IllegalStateException("Iteration outran " + USERS + " voters x " + ELECTIONS + " elections");
+        }
+        long[] election = elections[(int) (n / USERS)];
+        String phone = BenchmarkContext.phone(n % USERS);
+        if (pipeline.isEnabled()) {
+            pipeline.castVote(phone, election[0], election[1]);
+        } else {
+            voteService.castVote(phone, election[0], election[1]);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.ntrovote.service;
+
+import com.ntrovote.BenchmarkContext;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Voting statistics for one election where 60% of the roll has voted
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class VotingStatisticsBenchmark {
+
+    @Param({ "10000", "100000", "1000000" })
+    public int voters;
+
+    private ConfigurableApplicationContext context;
+
+    private AuthService authService;
+
+    private long electionId;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkContext.start();
+        authService = context.getBean(AuthService.class);
+        long[] election = BenchmarkContext.createElection(context, "Statistics", 2);
+        electionId = election[0];
+        BenchmarkContext.insertEligibleVoters(context, voters);
+        BenchmarkContext.insertUsers(context, voters * 6 / 10);
+        context.getBean(JdbcTemplate.class).update(
+                "INSERT INTO votes (user_id, election_id, nominee_id, voted_at) "
+                        + "SELECT id, ?, ?, CURRENT_TIMESTAMP FROM users",
+                electionId, election[1]);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Map<String, Object> getVotingStatistics() {
+        return authService.getVotingStatistics(electionId);
+    }
+
+    @Benchmark
+    public Map<String, Object> getVotingSummary() {
+        return authService.getVotingSummary(electionId);
+    }
+
+    @Benchmark
+    public void streamVotingStatistics() throws IOException {
+        authService.streamVotingStatistics(electionId, null, null, 0, OutputStream.nullOutputStream());
+    }
+}
@@ -0,0 +1,69 @@
+package com.ntrovote.loadtest;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Every sample is kept, so percentiles are exact rather than bucketed
+final class LatencyRecorder {
+
+    private final String name;
+
+    private long[] nanos = new long[4096];
+
+    private int count;
+
+    private int errors;
+
+    private final Map<Integer, Integer> statuses = new TreeMap<>();
+
+    LatencyRecorder(String name) {
+        this.name = name;
+    }
+
+    String name() {
+        return name;
+    }
+
+    synchronized void record(long elapsedNanos, int status) {
+        if (count == nanos.length) {
+            nanos = Arrays.copyOf(nanos, count * 2);
+        }
+        nanos[count++] = elapsedNanos;
+        statuses.merge(status, 1, Integer::sum);
+        if (status < 200 || status >= 300) {
+            errors++;
+        }
+    }
+
+    synchronized Map<String, Object> summarize(double elapsedSeconds) {
+        long[] sorted = Arrays.copyOf(nanos, count);
+        Arrays.sort(sorted);
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("requests", count);
+        summary.put("errors", errors);
+        summary.put("throughputPerSec", round(count / elapsedSeconds));
+        summary.put("p50Ms", percentile(sorted, 0.50));
+        summary.put("p90Ms", percentile(sorted, 0.90));
+        summary.put("p99Ms", percentile(sorted, 0.99));
+        summary.put("p999Ms", percentile(sorted, 0.999));
+        summary.put("maxMs", count == 0 ? 0.0 : round(sorted[count - 1] / 1e6));
+        Map<String, Integer> byStatus = new LinkedHashMap<>();
+        statuses.forEach((status, n) -> byStatus.put(String.valueOf(status), n));
+        summary.put("statuses", byStatus);
+        return summary;
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0.0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return round(sorted[Math.max(0, index)] / 1e6);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+}
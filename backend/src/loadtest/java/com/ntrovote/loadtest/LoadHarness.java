@@ -0,0 +1,297 @@
+package com.ntrovote.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.ntrovote.NtroVoteApplication;
+import com.ntrovote.model.Election;
+import com.ntrovote.model.Nominee;
+import com.ntrovote.service.ElectionService;
+import com.ntrovote.service.EligibilityIndex;
+import com.ntrovote.service.VoteTallyService;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Election-day rehearsal. Boots the backend in-process on embedded H2, seeds a
+// synthetic roll and elections, then pushes every voter through
+// send-otp -> verify-otp -> /elections/active -> /vote in bursts and writes
+// per-endpoint latency and throughput to report.json and report.html.
+//
+// Arguments are key=value. Harness options: voters, concurrency, elections,
+// nominees, bursts, burst-pause-ms, report (output directory) and baseline
+// (an earlier report.json to compare against). Any other key containing a dot
+// is passed to Spring, e.g. spring.threads.virtual.enabled=true or
+// vote.ingest.mode=batched.
+public class LoadHarness {
+
+    private static final long FIRST_PHONE = 7000000000L;
+
+    // Phone key of the first voter: country code 91 followed by the ten national digits
+    private static final long FIRST_KEY = 910000000000L + FIRST_PHONE;
+
+    private static final List<String> ENDPOINTS = List.of(
+            "POST /auth/send-otp", "sms-delivery", "POST /auth/verify-otp", "GET /elections/active", "POST /vote");
+
+    private final Map<String, String> options = new LinkedHashMap<>();
+
+    private final Map<String, Object> springProperties = new LinkedHashMap<>();
+
+    private final Map<String, LatencyRecorder> recorders = new LinkedHashMap<>();
+
+    private final ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private HttpClient client;
+
+    private String baseUrl;
+
+    private RecordingSmsGateway smsGateway;
+
+    private long[][] nominees;
+
+    private long[] electionIds;
+
+    private final AtomicInteger reportedFailures = new AtomicInteger();
+
+    public static void main(String[] args) throws Exception {
+        new LoadHarness(args).run();
+        System.exit(0);
+    }
+
+    LoadHarness(String[] args) {
+        options.put("voters", "10000");
+        options.put("concurrency", "50");
+        options.put("elections", "3");
+        options.put("nominees", "5");
+        options.put("bursts", "3");
+        options.put("burst-pause-ms", "2000");
+        options.put("report", "target/loadtest/report");
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq <= 0) {
+                throw new IllegalArgumentException("Expected key=value but got: " + arg);
+            }
+            String key = arg.substring(0, eq);
+            String value = arg.substring(eq + 1);
+            if (options.containsKey(key) || key.equals("baseline")) {
+                options.put(key, value);
+            } else if (key.contains(".")) {
+                springProperties.put(key, value);
+            } else {
+                throw new IllegalArgumentException("Unknown option: " + key);
+            }
+        }
+        ENDPOINTS.forEach(endpoint -> recorders.put(endpoint, new LatencyRecorder(endpoint)));
+    }
+
+    void run() throws Exception {
+        int voters = intOption("voters");
+        int concurrency = intOption("concurrency");
+        int bursts = Math.max(1, intOption("bursts"));
+
+        ConfigurableApplicationContext app = new SpringApplicationBuilder(NtroVoteApplication.class)
+                .profiles("loadtest")
+                .properties(springProperties)
+                .run();
+        try {
+            baseUrl = "http://localhost:" + ((WebServerApplicationContext) app).getWebServer().getPort();
+            smsGateway = app.getBean(RecordingSmsGateway.class);
+            seed(app, voters);
+
+            client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+            ExecutorService pool = Executors.newFixedThreadPool(concurrency);
+            System.out.println("Load: " + voters + " voters, " + concurrency + " concurrent, " + bursts + " burst(s)");
+
+            long started = System.nanoTime();
+            int perBurst = (voters + bursts - 1) / bursts;
+            for (int burst = 0; burst < bursts; burst++) {
+                int from = burst * perBurst;
+                int to = Math.min(voters, from + perBurst);
+                List<Future<?>> futures = new ArrayList<>(to - from);
+                for (int voter = from; voter < to; voter++) {
+                    int index = voter;
+                    futures.add(pool.submit(() -> vote(index)));
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+                System.out.println("Burst " + (burst + 1) + "/" + bursts + " done (" + to + " voters)");
+                if (burst + 1 < bursts) {
+                    Thread.sleep(longOption("burst-pause-ms"));
+                }
+            }
+            double elapsedSeconds = (System.nanoTime() - started) / 1e9;
+            pool.shutdownNow();
+
+            Map<String, Object> report = buildReport(app, elapsedSeconds);
+            writeReports(report);
+        } finally {
+            app.close();
+        }
+    }
+
+    private void seed(ConfigurableApplicationContext app, int voters) {
+        app.getBean(JdbcTemplate.class).update(
+                "INSERT INTO eligible_voters (phone_number, phone_key, name) "
+                        + "SELECT CONCAT('+', ? + X - 1), ? + X - 1, CONCAT('Voter ', X) "
+                        + "FROM SYSTEM_RANGE(1, ?)",
+                FIRST_KEY, FIRST_KEY, voters);
+        app.getBean(EligibilityIndex.class).rebuild();
+
+        ElectionService electionService = app.getBean(ElectionService.class);
+        int electionCount = intOption("elections");
+        int nomineeCount = intOption("nominees");
+        electionIds = new long[electionCount];
+        nominees = new long[electionCount][nomineeCount];
+        for (int e = 0; e < electionCount; e++) {
+            Election election = new Election();
+            election.setTitle("Load election " + (e + 1));
+            election = electionService.createElection(election);
+            electionIds[e] = election.getId();
+            for (int n = 0; n < nomineeCount; n++) {
+                Nominee nominee = new Nominee();
+                nominee.setName("Nominee " + (n + 1));
+                nominees[e][n] = electionService.addNominee(election.getId(), nominee).getId();
+            }
+        }
+    }
+
+    // One voter's session; stops at the first failed step like a real client would
+    private void vote(int index) {
+        String rawPhone = String.valueOf(FIRST_PHONE + index);
+        String phone = "+91" + rawPhone;
+        try {
+            if (!call("POST /auth/send-otp", post("/auth/send-otp", null, Map.of("phone", rawPhone))).ok()) {
+                return;
+            }
+            long waitStarted = System.nanoTime();
+            String code;
+            try {
+                code = smsGateway.codeFor(phone).get(30, TimeUnit.SECONDS);
+                recorders.get("sms-delivery").record(System.nanoTime() - waitStarted, 200);
+            } catch (TimeoutException e) {
+                recorders.get("sms-delivery").record(System.nanoTime() - waitStarted, 504);
+                return;
+            } finally {
+                smsGateway.forget(phone);
+            }
+
+            Result verified = call("POST /auth/verify-otp",
+                    post("/auth/verify-otp", null, Map.of("phone", rawPhone, "code", code)));
+            if (!verified.ok()) {
+                return;
+            }
+            String token = (String) objectMapper.readValue(verified.body(), Map.class).get("token");
+
+            if (!call("GET /elections/active", HttpRequest.newBuilder(URI.create(baseUrl + "/elections/active"))
+                    .header("Authorization", "Bearer " + token).GET().build()).ok()) {
+                return;
+            }
+
+            int election = index % electionIds.length;
+            long nominee = nominees[election][ThreadLocalRandom.current().nextInt(nominees[election].length)];
+            Result voted = call("POST /vote", post("/vote", token, Map.of("electionId", electionIds[election], "nomineeId", nominee)));
+            if (!voted.ok() && reportedFailures.incrementAndGet() <= 20) {
+                System.err.println("Voter " + index + " vote rejected: " + new String(voted.body(), StandardCharsets.UTF_8));
+            }
+        } catch (IOException | ExecutionException e) {
+            System.err.println("Voter " + index + " failed: " + e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private HttpRequest post(String path, String token, Map<String, Object> body) throws IOException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)));
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        return request.build();
+    }
+
+    private Result call(String endpoint, HttpRequest request) throws InterruptedException {
+        long started = System.nanoTime();
+        try {
+            HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            recorders.get(endpoint).record(System.nanoTime() - started, response.statusCode());
+            return new Result(response.statusCode(), response.body());
+        } catch (IOException e) {
+            recorders.get(endpoint).record(System.nanoTime() - started, 599);
+            return new Result(599, new byte[0]);
+        }
+    }
+
+    private Map<String, Object> buildReport(ConfigurableApplicationContext app, double elapsedSeconds) {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("finishedAt", Instant.now().toString());
+        report.put("elapsedSeconds", Math.round(elapsedSeconds * 100.0) / 100.0);
+        Map<String, Object> environment = new LinkedHashMap<>();
+        environment.put("java", Runtime.version().toString());
+        environment.put("cpus", Runtime.getRuntime().availableProcessors());
+        environment.put("options", options);
+        environment.put("springProperties", springProperties);
+        report.put("environment", environment);
+
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        recorders.forEach((name, recorder) -> endpoints.put(name, recorder.summarize(elapsedSeconds)));
+        report.put("endpoints", endpoints);
+
+        // The in-memory tally must still agree with the votes table after the run
+        VoteTallyService tally = app.getBean(VoteTallyService.class);
+        List<Object> consistency = new ArrayList<>();
+        for (long electionId : electionIds) {
+            consistency.add(tally.checkConsistency(electionId));
+        }
+        report.put("tallyConsistency", consistency);
+        return report;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void writeReports(Map<String, Object> report) throws IOException {
+        Path directory = Paths.get(options.get("report"));
+        Files.createDirectories(directory);
+        // Read first: the baseline may be the report.json about to be replaced
+        Map<String, Object> baseline = null;
+        if (options.containsKey("baseline")) {
+            baseline = objectMapper.readValue(Paths.get(options.get("baseline")).toFile(), Map.class);
+        }
+        objectMapper.writeValue(directory.resolve("report.json").toFile(), report);
+        Files.writeString(directory.resolve("report.html"), LoadReportHtml.render(report, baseline),
+                StandardCharsets.UTF_8);
+
+        System.out.println(objectMapper.writeValueAsString(report.get("endpoints")));
+        System.out.println("Reports written to " + directory.toAbsolutePath());
+    }
+
+    private int intOption(String key) {
+        return Integer.parseInt(options.get(key));
+    }
+
+    private long longOption(String key) {
+        return Long.parseLong(options.get(key));
+    }
+
+    private record Result(int status, byte[] body) {
+        boolean ok() {
+            return status >= 200 && status < 300;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.ntrovote.loadtest;
+
+import java.util.List;
+import java.util.Map;
+
+// Single self-contained HTML page; with a baseline each metric shows the change
+final class LoadReportHtml {
+
+    private static final List<String> COLUMNS = List.of(
+            "requests", "errors", "throughputPerSec", "p50Ms", "p90Ms", "p99Ms", "p999Ms", "maxMs");
+
+    private LoadReportHtml() {
+    }
+
+    @SuppressWarnings("unchecked")
+    static String render(Map<String, Object> report, Map<String, Object> baseline) {
+        Map<String, Map<String, Object>> endpoints = (Map<String, Map<String, Object>>) report.get("endpoints");
+        Map<String, Map<String, Object>> baseEndpoints = baseline == null
+                ? Map.of()
+                : (Map<String, Map<String, Object>>) baseline.get("endpoints");
+
+        StringBuilder html = new StringBuilder();
+        html.append("<!DOCTYPE html><html><head><meta charset=\"utf-8\"><title>NtroVote load report</title><style>")
+                .append("body{font-family:sans-serif;margin:2em}table{border-collapse:collapse}")
+                .append("td,th{border:1px solid #ccc;padding:4px 10px;text-align:right}th:first-child,td:first-child{text-align:left}")
+                .append(".worse{color:#b00}.better{color:#070}small{color:#666}pre{background:#f4f4f4;padding:1em}")
+                .append("</style></head><body>");
+        html.append("<h1>NtroVote load report</h1>");
+        html.append("<p>Finished ").append(escape(report.get("finishedAt"))).append(" in ")
+                .append(report.get("elapsedSeconds")).append(" s");
+        if (baseline != null) {
+            html.append(", compared with the baseline from ").append(escape(baseline.get("finishedAt")));
+        }
+        html.append("</p><table><tr><th>Endpoint</th>");
+        COLUMNS.forEach(column -> html.append("<th>").append(column).append("</th>"));
+        html.append("</tr>");
+        endpoints.forEach((endpoint, metrics) -> {
+            Map<String, Object> base = baseEndpoints.get(endpoint);
+            html.append("<tr><td>").append(escape(endpoint)).append("</td>");
+            for (String column : COLUMNS) {
+                html.append("<td>").append(metrics.get(column));
+                if (base != null && base.get(column) instanceof Number before) {
+                    html.append(delta(column, ((Number) metrics.get(column)).doubleValue(), before.doubleValue()));
+                }
+                html.append("</td>");
+            }
+            html.append("</tr>");
+        });
+        html.append("</table>");
+        html.append("<h2>Environment</h2><pre>").append(escape(report.get("environment"))).append("</pre>");
+        html.append("<h2>Tally consistency</h2><pre>").append(escape(report.get("tallyConsistency"))).append("</pre>");
+        html.append("</body></html>\n");
+        return html.toString();
+    }
+
+    // Throughput is better when higher; latency, errors and request counts are not judged
+    private static String delta(String column, double now, double before) {
+        if (before == 0 || column.equals("requests")) {
+            return "";
+        }
+        double change = (now - before) / before * 100.0;
+        boolean higherIsBetter = column.equals("throughputPerSec");
+        boolean better = higherIsBetter ? change > 0 : change < 0;
+        String css = Math.abs(change) < 5 ? "" : better ? "better" : "worse";
+        return String.format(" <small class=\"%s\">(%+.1f%%)</small>", css, change);
+    }
+
+    private static String escape(Object value) {
+        return String.valueOf(value).replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+    }
+}
@@ -1,6 +1,10 @@
 package com.ntrovote.config;
 
 import com.ntrovote.service.AuthService;
+import com.ntrovote.service.ElectionScheduler;
+import com.ntrovote.service.EligibilityIndex;
+import com.ntrovote.service.VoteTallyService;
+import com.ntrovote.service.VotedUserIndex;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.stereotype.Component;
@@ -11,8 +15,34 @@ public class DataInitializer implements CommandLineRunner {
     @Autowired
     private AuthService authService;
 
+    @Autowired
+    private PhoneKeyMigration phoneKeyMigration;
+
+    @Autowired
+    private ElectionStatusMigration electionStatusMigration;
+
+    @Autowired
+    private VoteTallyService voteTallyService;
+
+    @Autowired
+    private EligibilityIndex eligibilityIndex;
+
+    @Autowired
+    private VotedUserIndex votedUserIndex;
+
+    @Autowired
+    private ElectionScheduler electionScheduler;
+
     @Override
     public void run(String... args) throws Exception {
+        // Before the rebuilds below, which read phone keys and votes
+        phoneKeyMigration.run();
+        electionStatusMigration.run();
         authService.createInitialAdmin();
+        voteTallyService.rebuild();
+        eligibilityIndex.rebuild();
+        votedUserIndex.rebuild();
+        // Last, so anything that fell due while down is handled with warm indexes
+        electionScheduler.start();
     }
 }
@@ -0,0 +1,46 @@
+package com.ntrovote.config;
+
+import com.ntrovote.model.Election;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+// On MySQL, Hibernate creates elections.status as an ENUM of the statuses that
+// existed at the time, and ddl-auto=update never widens it. Adds any missing
+// ones; a no-op once the column is current and on other databases.
+@Component
+public class ElectionStatusMigration {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public void run() {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) c -> c.getMetaData().getDatabaseProductName());
+        if (!"MySQL".equals(product)) {
+            return;
+        }
+        List<String> types = jdbcTemplate.queryForList(
+                "SELECT COLUMN_TYPE FROM information_schema.COLUMNS "
+                        + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'elections' AND COLUMN_NAME = 'status'",
+                String.class);
+        if (types.isEmpty() || !types.get(0).toLowerCase().startsWith("enum(")) {
+            return;
+        }
+        String current = types.get(0);
+        boolean complete = Arrays.stream(Election.ElectionStatus.values())
+                .allMatch(status -> current.contains("'" + status.name() + "'"));
+        if (complete) {
+            return;
+        }
+        String values = Arrays.stream(Election.ElectionStatus.values())
+                .map(status -> "'" + status.name() + "'")
+                .collect(Collectors.joining(","));
+        jdbcTemplate.execute("ALTER TABLE elections MODIFY status ENUM(" + values + ")");
+        System.out.println("Election status column widened from " + current + " to enum(" + values + ")");
+    }
+}
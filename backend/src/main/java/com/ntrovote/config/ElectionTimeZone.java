@@ -0,0 +1,33 @@
+package com.ntrovote.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+// Election startAt / endAt are wall-clock times as the admin typed them into a
+// datetime-local field. They are read in election.time-zone, not in the
+// server's zone, which in a container is usually UTC.
+@Component
+public class ElectionTimeZone {
+
+    private final ZoneId zone;
+
+    public ElectionTimeZone(@Value("${election.time-zone:Asia/Kolkata}") String zone) {
+        this.zone = ZoneId.of(zone);
+    }
+
+    public ZoneId zone() {
+        return zone;
+    }
+
+    public LocalDateTime now() {
+        return LocalDateTime.now(zone);
+    }
+
+    public Instant toInstant(LocalDateTime time) {
+        return time.atZone(zone).toInstant();
+    }
+}
@@ -0,0 +1,128 @@
+package com.ntrovote.config;
+
+import com.ntrovote.model.PhoneNumber;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+// One-time backfill of phone_key for rows written before phones were stored
+// canonically. Rows whose phones are variants of one number ("9876543210",
+// "+91 98765 43210", "+919876543210") are merged into a single row, except
+// users who both voted in the same election, which are reported. Only rows
+// with a NULL phone_key are visited, so once the backfill is done a restart
+// costs a single empty query per table.
+@Component
+public class PhoneKeyMigration {
+
+    private static final Logger log = LoggerFactory.getLogger(PhoneKeyMigration.class);
+
+    private static final int PAGE_SIZE = 1000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    public void run() {
+        // OTPs now live in otp_codes keyed by phone_key; outstanding codes in the
+        // old table are at most a few minutes old, so users just request new ones
+        jdbcTemplate.execute("DROP TABLE IF EXISTS otps");
+
+        Counts users = backfill("users", "phone", true);
+        Counts voters = backfill("eligible_voters", "phone_number", false);
+        if (users.visited + voters.visited > 0) {
+            log.info("Phone key migration: users {}, eligible voters {}", users, voters);
+        }
+    }
+
+    private Counts backfill(String table, String phoneColumn, boolean mergeVotes) {
+        Counts counts = new Counts();
+        long afterId = 0;
+        while (true) {
+            List<Map<String, Object>> page = jdbcTemplate.queryForList(
+                    "SELECT id, " + phoneColumn + " AS phone FROM " + table
+                            + " WHERE phone_key IS NULL AND id > ? ORDER BY id LIMIT " + PAGE_SIZE,
+                    afterId);
+            if (page.isEmpty()) {
+                return counts;
+            }
+            transactionTemplate.executeWithoutResult(tx -> {
+                for (Map<String, Object> row : page) {
+                    migrateRow(table, phoneColumn, mergeVotes, ((Number) row.get("id")).longValue(),
+                            (String) row.get("phone"), counts);
+                }
+            });
+            afterId = ((Number) page.get(page.size() - 1).get("id")).longValue();
+        }
+    }
+
+    private void migrateRow(String table, String phoneColumn, boolean mergeVotes, long id, String phone,
+            Counts counts) {
+        counts.visited++;
+        long key = PhoneNumber.toKey(phone);
+        if (key < 0) {
+            // Left unkeyed: no login or OTP request can ever resolve to it
+            counts.invalid++;
+            log.warn("Phone key migration: {} row {} has invalid phone {}", table, id, phone);
+            return;
+        }
+        String canonical = new PhoneNumber(key).toString();
+        // Another row may already own the key, or still hold the canonical string unkeyed
+        List<Long> owners = jdbcTemplate.queryForList(
+                "SELECT id FROM " + table + " WHERE (phone_key = ? OR " + phoneColumn + " = ?) AND id <> ?",
+                Long.class, key, canonical, id);
+        if (owners.isEmpty()) {
+            jdbcTemplate.update("UPDATE " + table + " SET phone_key = ?, " + phoneColumn + " = ? WHERE id = ?",
+                    key, canonical, id);
+            counts.keyed++;
+            return;
+        }
+        long survivor = owners.get(0);
+        if (mergeVotes) {
+            List<Long> clashes = jdbcTemplate.queryForList(
+                    "SELECT d.election_id FROM votes d JOIN votes s ON s.election_id = d.election_id "
+                            + "AND s.user_id = ? WHERE d.user_id = ?",
+                    Long.class, survivor, id);
+            if (!clashes.isEmpty()) {
+                // Both accounts voted in the same election. Neither vote is ours to
+                // drop, so the row stays unkeyed until an admin settles it
+                counts.conflicts++;
+                log.warn("Phone key migration: users {} and {} share phone {} and both voted in elections {}; not merged",
+                        id, survivor, canonical, clashes);
+                return;
+            }
+            jdbcTemplate.update("UPDATE votes SET user_id = ? WHERE user_id = ?", survivor, id);
+        } else {
+            // Keep the duplicate's name if the surviving entry has none
+            String name = jdbcTemplate.queryForObject("SELECT name FROM eligible_voters WHERE id = ?",
+                    String.class, id);
+            if (name != null) {
+                jdbcTemplate.update("UPDATE eligible_voters SET name = ? WHERE id = ? AND name IS NULL",
+                        name, survivor);
+            }
+        }
+        jdbcTemplate.update("DELETE FROM " + table + " WHERE id = ?", id);
+        counts.merged++;
+    }
+
+    private static final class Counts {
+        long visited;
+        long keyed;
+        long merged;
+        long invalid;
+        long conflicts;
+
+        @Override
+        public String toString() {
+            return "visited=" + visited + " keyed=" + keyed + " merged=" + merged + " invalid=" + invalid
+                    + " conflicts=" + conflicts;
+        }
+    }
+}
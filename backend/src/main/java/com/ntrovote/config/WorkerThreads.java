@@ -0,0 +1,53 @@
+package com.ntrovote.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Thread factory for our own I/O-bound workers (SMS sends, SSE writes). When
+// spring.threads.virtual.enabled is on and the JVM is 21+, they get virtual
+// threads like the Tomcat request threads do; otherwise daemon platform
+// threads. Looked up reflectively because the build still targets Java 17.
+@Component
+public class WorkerThreads {
+
+    private final ThreadFactory virtualFactory;
+
+    public WorkerThreads(@Value("${spring.threads.virtual.enabled:false}") boolean virtualEnabled) {
+        this.virtualFactory = virtualEnabled ? lookupVirtualFactory() : null;
+        if (virtualEnabled && virtualFactory == null) {
+            System.out.println("Virtual threads requested but not available on Java "
+                    + Runtime.version().feature() + "; using platform threads");
+        }
+    }
+
+    public boolean isVirtual() {
+        return virtualFactory != null;
+    }
+
+    // Threads are named prefix-1, prefix-2, ...
+    public ThreadFactory factory(String prefix) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = virtualFactory != null ? virtualFactory.newThread(runnable) : new Thread(runnable);
+            thread.setName(prefix + "-" + count.incrementAndGet());
+            if (virtualFactory == null) {
+                thread.setDaemon(true);
+            }
+            return thread;
+        };
+    }
+
+    private static ThreadFactory lookupVirtualFactory() {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Method factory = Class.forName("java.lang.Thread$Builder").getMethod("factory");
+            return (ThreadFactory) factory.invoke(builder);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
@@ -1,10 +1,18 @@
 package com.ntrovote.controller;
 
+import com.ntrovote.ratelimit.AuthRateLimiter;
 import com.ntrovote.service.AuthService;
+import com.ntrovote.service.VotedUserIndex;
+import com.ntrovote.service.VoterRollImportService;
+import com.ntrovote.sms.SmsDispatcher;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
 import java.util.Map;
 
 @RestController
@@ -14,6 +22,18 @@ public class AdminController {
     @Autowired
     private AuthService authService;
 
+    @Autowired
+    private SmsDispatcher smsDispatcher;
+
+    @Autowired
+    private AuthRateLimiter authRateLimiter;
+
+    @Autowired
+    private VoterRollImportService voterRollImportService;
+
+    @Autowired
+    private VotedUserIndex votedUserIndex;
+
     @PostMapping("/login")
     public ResponseEntity<?> login(@RequestBody Map<String, String> request) {
         String username = request.get("username");
@@ -31,6 +51,26 @@ public class AdminController {
         return ResponseEntity.ok(authService.getAllOtps());
     }
 
+    @GetMapping("/otps/stats")
+    public ResponseEntity<?> getOtpStoreStats() {
+        return ResponseEntity.ok(authService.getOtpStoreStats());
+    }
+
+    @GetMapping("/sms/stats")
+    public ResponseEntity<?> getSmsStats() {
+        return ResponseEntity.ok(smsDispatcher.getStats());
+    }
+
+    @GetMapping("/ratelimit/stats")
+    public ResponseEntity<?> getRateLimitStats() {
+        return ResponseEntity.ok(authRateLimiter.getStats());
+    }
+
+    @GetMapping("/voted-index/stats")
+    public ResponseEntity<?> getVotedIndexStats() {
+        return ResponseEntity.ok(votedUserIndex.getStats());
+    }
+
     @GetMapping("/users")
     public ResponseEntity<?> getAllEligibleVoters() {
         return ResponseEntity.ok(authService.getAllEligibleVoters());
@@ -47,18 +87,91 @@ public class AdminController {
         }
     }
 
+    // mode=append adds new phones; mode=sync also removes phones missing from the file.
+    // dryRun=true only reports the diff; force=true overrides the sync sanity checks.
+    @PostMapping("/users/import")
+    public ResponseEntity<?> importEligibleVoters(@RequestParam("file") MultipartFile file,
+            @RequestParam(defaultValue = "append") String mode,
+            @RequestParam(defaultValue = "false") boolean dryRun,
+            @RequestParam(defaultValue = "false") boolean force) {
+        try {
+            VoterRollImportService.Mode importMode = VoterRollImportService.Mode.valueOf(mode.toUpperCase());
+            Map<String, Object> result = voterRollImportService.importRoll(file.getInputStream(), importMode, dryRun,
+                    force);
+            if ("refused".equals(result.get("phase"))) {
+                return ResponseEntity.unprocessableEntity().body(result);
+            }
+            return ResponseEntity.ok(result);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(409).body(Map.of("error", e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(400).body(Map.of("error", "Unknown import mode: " + mode));
+        } catch (IOException | RuntimeException e) {
+            return ResponseEntity.status(500).body(Map.of("error", "Import failed: " + e.getMessage()));
+        }
+    }
+
+    @GetMapping("/users/import/status")
+    public ResponseEntity<?> getImportStatus() {
+        return ResponseEntity.ok(voterRollImportService.getStatus());
+    }
+
     @DeleteMapping("/users/{phone}")
     public ResponseEntity<?> removeEligibleVoter(@PathVariable String phone) {
-        authService.removeEligibleVoter(phone);
-        return ResponseEntity.ok(Map.of("message", "Voter removed"));
+        try {
+            authService.removeEligibleVoter(phone);
+            return ResponseEntity.ok(Map.of("message", "Voter removed"));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(400).body(Map.of("error", e.getMessage()));
+        }
     }
 
     @GetMapping("/voting-stats/{electionId}")
-    public ResponseEntity<?> getVotingStatistics(@PathVariable Long electionId) {
+    public ResponseEntity<?> getVotingStatistics(@PathVariable Long electionId,
+            @RequestParam(required = false) String format) {
         try {
+            if ("summary".equals(format)) {
+                return ResponseEntity.ok(authService.getVotingSummary(electionId));
+            }
             return ResponseEntity.ok(authService.getVotingStatistics(electionId));
         } catch (RuntimeException e) {
             return ResponseEntity.status(404).body(Map.of("error", e.getMessage()));
         }
     }
+
+    // Counts on the first line, then one voter per line; status=voted|notVoted
+    // narrows the stream and after=<section>:<id> resumes it from the last line
+    // received (a bare id needs status, since each section has its own order)
+    @GetMapping(value = "/voting-stats/{electionId}", params = "format=ndjson")
+    public ResponseEntity<?> streamVotingStatistics(@PathVariable Long electionId,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String after) {
+        if (status != null && !AuthService.STATS_SECTIONS.contains(status)) {
+            return ResponseEntity.badRequest().body(Map.of("error", "status must be voted or notVoted"));
+        }
+        String resumeSection = null;
+        long afterId = 0;
+        if (after != null) {
+            int colon = after.indexOf(':');
+            resumeSection = colon < 0 ? status : after.substring(0, colon);
+            try {
+                afterId = Long.parseLong(after.substring(colon + 1));
+            } catch (NumberFormatException e) {
+                return ResponseEntity.badRequest().body(Map.of("error", "after must be <section>:<id>"));
+            }
+            if (resumeSection == null) {
+                return ResponseEntity.badRequest().body(Map.of("error", "after needs a section, e.g. after=voted:" + afterId));
+            }
+            if (!AuthService.STATS_SECTIONS.contains(resumeSection)
+                    || (status != null && !status.equals(resumeSection))) {
+                return ResponseEntity.badRequest().body(Map.of("error", "after names a section not in this stream"));
+            }
+        }
+        String section = resumeSection;
+        long cursor = afterId;
+        StreamingResponseBody body = out -> authService.streamVotingStatistics(electionId, status, section, cursor, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
 }
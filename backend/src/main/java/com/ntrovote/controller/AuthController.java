@@ -1,7 +1,11 @@
 package com.ntrovote.controller;
 
+import com.ntrovote.ratelimit.AuthRateLimiter;
 import com.ntrovote.service.AuthService;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -14,9 +18,16 @@ public class AuthController {
     @Autowired
     private AuthService authService;
 
+    @Autowired
+    private AuthRateLimiter authRateLimiter;
+
     @PostMapping("/send-otp")
-    public ResponseEntity<?> sendOtp(@RequestBody Map<String, String> request) {
+    public ResponseEntity<?> sendOtp(@RequestBody Map<String, String> request, HttpServletRequest servletRequest) {
         String phone = request.get("phone");
+        long retryAfterMs = authRateLimiter.checkSendOtp(phone, servletRequest.getRemoteAddr());
+        if (retryAfterMs > 0) {
+            return tooManyRequests(retryAfterMs);
+        }
         try {
             authService.sendOtp(phone);
             return ResponseEntity.ok(Map.of("message", "OTP sent successfully"));
@@ -26,9 +37,13 @@ public class AuthController {
     }
 
     @PostMapping("/verify-otp")
-    public ResponseEntity<?> verifyOtp(@RequestBody Map<String, String> request) {
+    public ResponseEntity<?> verifyOtp(@RequestBody Map<String, String> request, HttpServletRequest servletRequest) {
         String phone = request.get("phone");
         String code = request.get("code");
+        long retryAfterMs = authRateLimiter.checkVerifyOtp(phone, servletRequest.getRemoteAddr());
+        if (retryAfterMs > 0) {
+            return tooManyRequests(retryAfterMs);
+        }
         try {
             String token = authService.verifyOtp(phone, code);
             return ResponseEntity.ok(Map.of("token", token));
@@ -36,4 +51,10 @@ public class AuthController {
             return ResponseEntity.status(401).body(Map.of("error", e.getMessage()));
         }
     }
+
+    private static ResponseEntity<?> tooManyRequests(long retryAfterMs) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf((retryAfterMs + 999) / 1000))
+                .body(Map.of("error", "Too many requests, please try again later"));
+    }
 }
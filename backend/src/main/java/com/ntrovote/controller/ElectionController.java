@@ -2,20 +2,32 @@ package com.ntrovote.controller;
 
 import com.ntrovote.model.Election;
 import com.ntrovote.model.Nominee;
+import com.ntrovote.repository.VoteArchiveInfo;
+import com.ntrovote.service.BallotCache;
+import com.ntrovote.service.ElectionResetService;
+import com.ntrovote.service.ElectionScheduler;
 import com.ntrovote.service.ElectionService;
+import com.ntrovote.service.ImageCache;
+import com.ntrovote.service.NomineeImageService;
+import com.ntrovote.service.ResultSnapshotService;
+import com.ntrovote.service.ResultsStreamService;
 import com.ntrovote.service.VoteService;
+import com.ntrovote.service.VoteTallyService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.UUID;
 
 @RestController
 @RequestMapping("/elections")
@@ -27,23 +39,77 @@ public class ElectionController {
     @Autowired
     private VoteService voteService;
 
-    private final Path rootLocation = Paths.get("uploads");
+    @Autowired
+    private VoteTallyService voteTallyService;
+
+    @Autowired
+    private BallotCache ballotCache;
+
+    @Autowired
+    private ResultsStreamService resultsStreamService;
+
+    @Autowired
+    private ResultSnapshotService resultSnapshotService;
+
+    @Autowired
+    private ElectionResetService electionResetService;
+
+    @Autowired
+    private ElectionScheduler electionScheduler;
+
+    @Autowired
+    private NomineeImageService nomineeImageService;
+
+    @Autowired
+    private ImageCache imageCache;
+
+    @Value("${upload.image.max-bytes:10485760}")
+    private long maxImageBytes;
 
     @GetMapping("/active")
-    public List<Election> getActiveElections() {
-        return electionService.getActiveElections();
+    public ResponseEntity<byte[]> getActiveElections(
+            @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
+        return ballotResponse(ballotCache.getActiveElections(), ifNoneMatch);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Election> getElection(@PathVariable Long id) {
-        return ResponseEntity.ok(electionService.getElection(id));
+    public ResponseEntity<byte[]> getElection(@PathVariable Long id,
+            @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
+        return ballotResponse(ballotCache.getElection(id), ifNoneMatch);
+    }
+
+    // no-cache lets clients keep the body but revalidate it with the ETag each time
+    private ResponseEntity<byte[]> ballotResponse(BallotCache.Payload payload, String ifNoneMatch) {
+        if (ifNoneMatch != null && (ifNoneMatch.contains(payload.etag()) || ifNoneMatch.trim().equals("*"))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(payload.etag())
+                    .cacheControl(CacheControl.noCache())
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .eTag(payload.etag())
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(payload.body());
     }
 
     // Admin Endpoints
 
     @PostMapping("/admin")
-    public ResponseEntity<Election> createElection(@RequestBody Election election) {
-        return ResponseEntity.ok(electionService.createElection(election));
+    public ResponseEntity<?> createElection(@RequestBody Election election) {
+        try {
+            Election saved = electionService.createElection(election);
+            electionScheduler.schedule(saved);
+            return ResponseEntity.ok(saved);
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(400).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // Upcoming opens, closes and warm-ups, soonest first
+    @GetMapping("/admin/schedule")
+    public List<Map<String, Object>> getSchedule() {
+        return electionScheduler.getPending();
     }
 
     @GetMapping("/admin/all")
@@ -56,41 +122,88 @@ public class ElectionController {
             @RequestParam("name") String name,
             @RequestParam("details") String details,
             @RequestParam("image") MultipartFile image) {
+        if (image.getSize() > maxImageBytes) {
+            return ResponseEntity.status(413).body(Map.of("error", "Image is too large"));
+        }
         try {
-            if (!Files.exists(rootLocation)) {
-                Files.createDirectories(rootLocation);
-            }
-
-            String filename = UUID.randomUUID().toString() + "_" + image.getOriginalFilename();
-            Files.copy(image.getInputStream(), rootLocation.resolve(filename));
+            NomineeImageService.StoredImage stored = nomineeImageService.store(image);
 
             Nominee nominee = new Nominee();
             nominee.setName(name);
             nominee.setDetails(details);
-            nominee.setImageUrl("/images/" + filename);
+            nominee.setImageUrl("/images/" + stored.filename());
 
-            return ResponseEntity.ok(electionService.addNominee(id, nominee));
+            Nominee saved = electionService.addNominee(id, nominee);
+            // Variants are written off the request thread and swapped in when ready
+            nomineeImageService.processAsync(saved.getId(), stored);
+            return ResponseEntity.ok(saved);
         } catch (IOException e) {
             return ResponseEntity.status(500).body(Map.of("error", "Failed to upload image"));
         }
     }
 
+    @PostMapping("/admin/images/reprocess")
+    public ResponseEntity<?> reprocessImages() {
+        return ResponseEntity.ok(Map.of("queued", nomineeImageService.reprocessAll()));
+    }
+
+    @GetMapping("/admin/images/stats")
+    public ResponseEntity<?> getImageStats() {
+        return ResponseEntity.ok(Map.of(
+                "processing", nomineeImageService.getStats(),
+                "cache", imageCache.getStats()));
+    }
+
     @DeleteMapping("/admin/nominees/{id}")
     public ResponseEntity<?> deleteNominee(@PathVariable Long id) {
         electionService.deleteNominee(id);
         return ResponseEntity.ok(Map.of("message", "Nominee deleted"));
     }
 
+    // Runs in the background; poll GET for progress. archive=true keeps the votes in vote_archives
     @PostMapping("/admin/{id}/reset")
-    public ResponseEntity<?> resetElection(@PathVariable Long id) {
-        electionService.resetElection(id);
-        return ResponseEntity.ok(Map.of("message", "Election votes reset"));
+    public ResponseEntity<?> resetElection(@PathVariable Long id,
+            @RequestParam(defaultValue = "false") boolean archive) {
+        try {
+            Map<String, Object> status = new LinkedHashMap<>(electionResetService.startReset(id, archive));
+            status.put("message", "Election reset started");
+            return ResponseEntity.accepted().body(status);
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(e.getMessage().endsWith("not found") ? 404 : 409)
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/admin/{id}/reset")
+    public ResponseEntity<?> getResetStatus(@PathVariable Long id) {
+        try {
+            return ResponseEntity.ok(electionResetService.getStatus(id));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(404).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/admin/{id}/archives")
+    public List<VoteArchiveInfo> getVoteArchives(@PathVariable Long id) {
+        return electionResetService.getArchives(id);
+    }
+
+    @GetMapping("/admin/archives/{archiveId}")
+    public ResponseEntity<?> downloadVoteArchive(@PathVariable Long archiveId) {
+        return electionResetService.findArchive(archiveId)
+                .<ResponseEntity<?>>map(archive -> ResponseEntity.ok()
+                        .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"election-"
+                                + archive.getElectionId() + "-votes-" + archive.getFirstVoteId() + "-"
+                                + archive.getLastVoteId() + ".csv.gz\"")
+                        .contentType(MediaType.parseMediaType("application/gzip"))
+                        .body(archive.getPayload()))
+                .orElseGet(() -> ResponseEntity.status(404).body(Map.of("error", "Archive not found")));
     }
 
     @PutMapping("/admin/{id}/status")
     public ResponseEntity<?> updateStatus(@PathVariable Long id, @RequestBody Map<String, String> statusMap) {
         Election.ElectionStatus status = Election.ElectionStatus.valueOf(statusMap.get("status"));
-        electionService.updateElectionStatus(id, status);
+        electionScheduler.schedule(electionService.updateElectionStatus(id, status));
         return ResponseEntity.ok(Map.of("message", "Status updated"));
     }
 
@@ -99,6 +212,39 @@ public class ElectionController {
         return ResponseEntity.ok(voteService.getElectionResults(id));
     }
 
+    @GetMapping(value = "/admin/{id}/results/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamElectionResults(@PathVariable Long id) {
+        return resultsStreamService.subscribe(id);
+    }
+
+    @GetMapping("/admin/{id}/results/consistency")
+    public ResponseEntity<?> checkResultsConsistency(@PathVariable Long id) {
+        return ResponseEntity.ok(voteTallyService.checkConsistency(id));
+    }
+
+    @PostMapping("/admin/{id}/results/rebuild")
+    public ResponseEntity<?> rebuildResults(@PathVariable Long id) {
+        voteTallyService.rebuildElection(id);
+        return ResponseEntity.ok(voteTallyService.checkConsistency(id));
+    }
+
+    // Totals, turnout, winner and vote checksum written when the election was finalized
+    @GetMapping("/admin/{id}/results/snapshot")
+    public ResponseEntity<?> getResultSnapshot(@PathVariable Long id) {
+        return resultSnapshotService.find(id)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(404).body(Map.of("error", "Election results not found")));
+    }
+
+    @GetMapping("/admin/{id}/results/snapshot/verify")
+    public ResponseEntity<?> verifyResultSnapshot(@PathVariable Long id) {
+        try {
+            return ResponseEntity.ok(resultSnapshotService.verify(id));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(404).body(Map.of("error", e.getMessage()));
+        }
+    }
+
     @PostMapping("/admin/{id}/finalize")
     public ResponseEntity<?> finalizeElection(@PathVariable Long id) {
         try {
@@ -1,6 +1,9 @@
 package com.ntrovote.controller;
 
+import com.ntrovote.service.VoteIngestPipeline;
 import com.ntrovote.service.VoteService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
@@ -18,17 +21,55 @@ public class VoteController {
     @Autowired
     private VoteService voteService;
 
+    @Autowired
+    private VoteIngestPipeline voteIngestPipeline;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @PostMapping
     public ResponseEntity<?> castVote(@RequestBody Map<String, Long> request, Authentication authentication) {
         String userPhone = authentication.getName();
         Long electionId = request.get("electionId");
         Long nomineeId = request.get("nomineeId");
 
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "accepted";
         try {
-            voteService.castVote(userPhone, electionId, nomineeId);
+            if (voteIngestPipeline.isEnabled()) {
+                voteIngestPipeline.castVote(userPhone, electionId, nomineeId);
+            } else {
+                voteService.castVote(userPhone, electionId, nomineeId);
+            }
+            // Both paths return only after the vote committed, so this is the per-election vote rate
+            meterRegistry.counter("election.votes", "election", String.valueOf(electionId)).increment();
             return ResponseEntity.ok(Map.of("message", "Vote cast successfully"));
         } catch (RuntimeException e) {
+            outcome = outcome(e.getMessage());
             return ResponseEntity.status(409).body(Map.of("error", e.getMessage()));
+        } finally {
+            sample.stop(meterRegistry.timer("vote.cast", "outcome", outcome,
+                    "mode", voteIngestPipeline.isEnabled() ? "batched" : "direct"));
+        }
+    }
+
+    // Rejections are plain RuntimeExceptions, so the outcome tag comes from the message
+    private static String outcome(String message) {
+        if (message == null) {
+            return "error";
+        }
+        if (message.startsWith("Already voted")) {
+            return "duplicate";
+        }
+        if (message.equals("Election is closed")) {
+            return "closed";
+        }
+        if (message.endsWith("not found")) {
+            return "not_found";
+        }
+        if (message.contains("busy")) {
+            return "busy";
         }
+        return "error";
     }
 }
@@ -0,0 +1,69 @@
+package com.ntrovote.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+// Hands out replica connections to read-only service transactions and primary
+// connections to everything else, including read-only work while the replica
+// is lagging. The route is picked when a connection is fetched, so this must
+// sit behind a LazyConnectionDataSourceProxy: Hibernate asks for its connection
+// while beginning the transaction, before Spring has marked it read-only.
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    // Spring Data wraps its own finders in read-only transactions. Called outside
+    // a service transaction they usually precede a write (verifyOtp looks the
+    // user up, then creates it), so they must see the primary
+    private static final String REPOSITORY_TRANSACTION_PREFIX = "org.springframework.data.";
+
+    private enum Route {
+        PRIMARY, REPLICA
+    }
+
+    private final ReplicaLagMonitor lagMonitor;
+
+    private final Counter primaryRoutes;
+
+    private final Counter replicaRoutes;
+
+    private final Counter fallbackRoutes;
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagMonitor lagMonitor,
+            MeterRegistry meterRegistry) {
+        this.lagMonitor = lagMonitor;
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        primaryRoutes = meterRegistry.counter("datasource.routed", "route", "primary");
+        replicaRoutes = meterRegistry.counter("datasource.routed", "route", "replica");
+        // Read-only transactions the lag guard kept on the primary
+        fallbackRoutes = meterRegistry.counter("datasource.routed", "route", "fallback");
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!isReadOnlyServiceTransaction()) {
+            primaryRoutes.increment();
+            return Route.PRIMARY;
+        }
+        if (!lagMonitor.isReplicaUsable()) {
+            fallbackRoutes.increment();
+            return Route.PRIMARY;
+        }
+        replicaRoutes.increment();
+        return Route.REPLICA;
+    }
+
+    private static boolean isReadOnlyServiceTransaction() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return false;
+        }
+        // Null for TransactionTemplate work, which is ours
+        String name = TransactionSynchronizationManager.getCurrentTransactionName();
+        return name == null || !name.startsWith(REPOSITORY_TRANSACTION_PREFIX);
+    }
+}
@@ -0,0 +1,104 @@
+package com.ntrovote.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+// Measures how far the replica trails the primary with a heartbeat row, the
+// way pt-heartbeat does. Each tick reads the replica's copy of the row, then
+// writes a fresh timestamp on the primary. A replica that already has the
+// previous tick's beat is less than one tick behind; otherwise it is at least
+// as far behind as the beat it has. Reads go to the primary while that is
+// over the limit or the replica can't be reached.
+public class ReplicaLagMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private final JdbcTemplate primary;
+
+    private final JdbcTemplate replica;
+
+    // 0 turns the guard off, for replicas without the heartbeat table
+    private final long maxLagMs;
+
+    // -1 while unknown: not checked yet, replica unreachable or row missing
+    private volatile long lagMs = -1;
+
+    private volatile boolean usable;
+
+    private long lastBeat;
+
+    public ReplicaLagMonitor(DataSource primary, DataSource replica, long maxLagMs, MeterRegistry meterRegistry) {
+        this.primary = new JdbcTemplate(primary);
+        this.replica = new JdbcTemplate(replica);
+        // A stalled replica must not hold up the shared scheduler thread
+        this.replica.setQueryTimeout((int) Math.max(1, maxLagMs / 1000));
+        this.maxLagMs = maxLagMs;
+        this.usable = maxLagMs <= 0;
+        Gauge.builder("datasource.replica.lag", this, monitor -> monitor.lagMs)
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        Gauge.builder("datasource.replica.usable", this, monitor -> monitor.usable ? 1 : 0)
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void init() {
+        if (maxLagMs > 0) {
+            // Created on the primary only; replication brings it to the replica
+            primary.execute("CREATE TABLE IF NOT EXISTS replica_heartbeat (id INT PRIMARY KEY, beat_at BIGINT NOT NULL)");
+        }
+    }
+
+    public boolean isReplicaUsable() {
+        return usable;
+    }
+
+    public long getLagMs() {
+        return lagMs;
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.replica.heartbeat-ms:500}")
+    public void check() {
+        if (maxLagMs <= 0) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long lag;
+        try {
+            List<Long> beat = replica.queryForList("SELECT beat_at FROM replica_heartbeat WHERE id = 1", Long.class);
+            lag = beat.isEmpty() ? -1 : lastBeat > 0 && beat.get(0) >= lastBeat ? 0 : now - beat.get(0);
+        } catch (DataAccessException e) {
+            lag = -1;
+        }
+        update(lag);
+
+        try {
+            if (primary.update("UPDATE replica_heartbeat SET beat_at = ? WHERE id = 1", now) == 0) {
+                primary.update("INSERT INTO replica_heartbeat (id, beat_at) VALUES (1, ?)", now);
+            }
+            lastBeat = now;
+        } catch (DataAccessException e) {
+            log.warn("Replica heartbeat write failed: {}", e.getMessage());
+        }
+    }
+
+    private void update(long lag) {
+        lagMs = lag;
+        boolean nowUsable = lag >= 0 && lag <= maxLagMs;
+        if (nowUsable && !usable) {
+            log.info("Replica caught up ({} ms behind), read-only transactions back on the replica", lag);
+        } else if (!nowUsable && usable) {
+            log.warn("Replica {}, read-only transactions on the primary", lag < 0 ? "unreachable" : lag + " ms behind");
+        }
+        usable = nowUsable;
+    }
+}
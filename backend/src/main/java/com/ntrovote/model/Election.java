@@ -4,7 +4,9 @@ import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.List;
 
 @Entity
@@ -22,6 +24,9 @@ public class Election {
 
     private String description;
 
+    // Wall-clock times in election.time-zone (see ElectionTimeZone). With startAt
+    // in the future the election is created SCHEDULED; ElectionScheduler opens
+    // it at startAt and finalizes it at endAt.
     private LocalDateTime startAt;
 
     private LocalDateTime endAt;
@@ -34,7 +39,13 @@ public class Election {
     @OneToMany(mappedBy = "election", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Nominee> nominees;
 
+    // endAt is enforced here too, so voting stops on time even if the
+    // scheduler runs late
+    public boolean isOpenAt(Instant time, ZoneId zone) {
+        return status == ElectionStatus.ONGOING && (endAt == null || time.isBefore(endAt.atZone(zone).toInstant()));
+    }
+
     public enum ElectionStatus {
-        ONGOING, CLOSED
+        SCHEDULED, ONGOING, CLOSED
     }
 }
@@ -0,0 +1,45 @@
+package com.ntrovote.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Results of a finalized election, written once by finalizeElection. Reads of a
+// closed election come from here instead of aggregating the votes table.
+@Entity
+@Table(name = "election_results")
+@Immutable
+@Data
+@NoArgsConstructor
+public class ElectionResult {
+
+    @Id
+    private Long electionId;
+
+    private Long winnerId;
+
+    private long totalVotes;
+
+    // Roll size and how many of its voters voted, as of finalization
+    private long eligibleVoters;
+
+    private long votedEligible;
+
+    private double turnoutPercent;
+
+    // SHA-256 over (vote id, user id, nominee id) of every counted vote, in id order
+    @Column(nullable = false, length = 64)
+    private String voteChecksum;
+
+    @Column(nullable = false)
+    private LocalDateTime finalizedAt;
+
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "election_result_nominees", joinColumns = @JoinColumn(name = "election_id"))
+    @OrderColumn(name = "position")
+    private List<NomineeResult> nominees;
+}
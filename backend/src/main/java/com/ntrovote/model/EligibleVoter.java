@@ -14,17 +14,23 @@ public class EligibleVoter {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    // Canonical "+<digits>" form of phoneKey
     @Column(unique = true, nullable = false)
     private String phoneNumber;
 
+    // Nullable only so the column can be added to existing tables; always set for new rows
+    @Column(name = "phone_key", unique = true)
+    private Long phoneKey;
+
     private String name;
 
-    public EligibleVoter(String phoneNumber) {
-        this.phoneNumber = phoneNumber;
+    public EligibleVoter(PhoneNumber phone) {
+        this(phone, null);
     }
 
-    public EligibleVoter(String phoneNumber, String name) {
-        this.phoneNumber = phoneNumber;
+    public EligibleVoter(PhoneNumber phone, String name) {
+        this.phoneNumber = phone.toString();
+        this.phoneKey = phone.key();
         this.name = name;
     }
 }
@@ -25,5 +25,7 @@ public class Nominee {
 
     private String imageUrl;
 
+    private String thumbnailUrl;
+
     private String details;
 }
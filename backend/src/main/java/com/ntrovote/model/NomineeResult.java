@@ -0,0 +1,27 @@
+package com.ntrovote.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One nominee's line in an ElectionResult; the name is copied so the
+// snapshot still reads correctly if the nominee is later edited
+@Embeddable
+@Data
+@NoArgsConstructor
+public class NomineeResult {
+
+    @Column(nullable = false)
+    private Long nomineeId;
+
+    private String name;
+
+    private long voteCount;
+
+    public NomineeResult(Long nomineeId, String name, long voteCount) {
+        this.nomineeId = nomineeId;
+        this.name = name;
+        this.voteCount = voteCount;
+    }
+}
@@ -7,13 +7,17 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "otps")
+// Replaces the old string-keyed "otps" table, which PhoneKeyMigration drops
+@Table(name = "otp_codes")
 @Data
 @NoArgsConstructor
 public class Otp {
 
     @Id
-    @Column(length = 20)
+    @Column(name = "phone_key")
+    private Long phoneKey;
+
+    @Column(nullable = false, length = 20)
     private String phone;
 
     @Column(nullable = false)
@@ -22,8 +26,9 @@ public class Otp {
     @Column(nullable = false)
     private LocalDateTime expiresAt;
 
-    public Otp(String phone, String code, LocalDateTime expiresAt) {
-        this.phone = phone;
+    public Otp(PhoneNumber phone, String code, LocalDateTime expiresAt) {
+        this.phoneKey = phone.key();
+        this.phone = phone.toString();
         this.code = code;
         this.expiresAt = expiresAt;
     }
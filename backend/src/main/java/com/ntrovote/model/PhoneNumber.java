@@ -0,0 +1,75 @@
+package com.ntrovote.model;
+
+// Canonical E.164 phone number held as its digits in a long ("+919876543210"
+// is 919876543210). This key is what users, eligible_voters and OTPs are
+// indexed by; the "+<digits>" string is only for display, SMS and JWT subjects.
+public record PhoneNumber(long key) {
+
+    // India, written as digits and digit count
+    private static final long DEFAULT_COUNTRY_CODE = 91;
+    private static final int DEFAULT_COUNTRY_DIGITS = 2;
+
+    // E.164 allows at most 15 digits; fewer than 7 is never a real subscriber number
+    private static final int MIN_DIGITS = 7;
+    private static final int MAX_DIGITS = 15;
+
+    public static PhoneNumber parse(String phone) {
+        long key = toKey(phone);
+        if (key < 0) {
+            throw new RuntimeException("Invalid phone number");
+        }
+        return new PhoneNumber(key);
+    }
+
+    // Single pass, no regex: spaces, '-', '.', '(' and ')' are skipped and numbers
+    // without a leading '+' get the default country code, after dropping a single
+    // domestic trunk '0' ("09876543210" is +919876543210). Returns -1 when invalid.
+    public static long toKey(String phone) {
+        if (phone == null) {
+            return -1;
+        }
+        int start = 0;
+        int length = phone.length();
+        while (start < length && isSeparator(phone.charAt(start))) {
+            start++;
+        }
+        long key;
+        int digits;
+        boolean national;
+        if (start < length && phone.charAt(start) == '+') {
+            start++;
+            key = 0;
+            digits = 0;
+            national = false;
+        } else {
+            key = DEFAULT_COUNTRY_CODE;
+            digits = DEFAULT_COUNTRY_DIGITS;
+            national = true;
+        }
+        for (int i = start; i < length; i++) {
+            char c = phone.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (national && digits == DEFAULT_COUNTRY_DIGITS && c == '0') {
+                    national = false;
+                    continue;
+                }
+                if (key == 0 && c == '0' || ++digits > MAX_DIGITS) {
+                    return -1;
+                }
+                key = key * 10 + (c - '0');
+            } else if (!isSeparator(c)) {
+                return -1;
+            }
+        }
+        return digits < MIN_DIGITS ? -1 : key;
+    }
+
+    private static boolean isSeparator(char c) {
+        return c == ' ' || c == '-' || c == '.' || c == '(' || c == ')' || Character.isWhitespace(c);
+    }
+
+    @Override
+    public String toString() {
+        return "+" + key;
+    }
+}
@@ -17,13 +17,19 @@ public class User {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    // Canonical "+<digits>" form of phoneKey
     @Column(unique = true, nullable = false)
     private String phone;
 
+    // Nullable only so the column can be added to existing tables; always set for new rows
+    @Column(name = "phone_key", unique = true)
+    private Long phoneKey;
+
     @CreationTimestamp
     private LocalDateTime createdAt;
 
-    public User(String phone) {
-        this.phone = phone;
+    public User(PhoneNumber phone) {
+        this.phone = phone.toString();
+        this.phoneKey = phone.key();
     }
 }
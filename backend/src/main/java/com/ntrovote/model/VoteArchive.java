@@ -0,0 +1,41 @@
+package com.ntrovote.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// One chunk of votes moved out of the votes table by an archiving reset
+@Entity
+@Table(name = "vote_archives", indexes = @Index(columnList = "election_id"))
+@Data
+@NoArgsConstructor
+public class VoteArchive {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "election_id", nullable = false)
+    private Long electionId;
+
+    private long firstVoteId;
+
+    private long lastVoteId;
+
+    private int voteCount;
+
+    private int compressedBytes;
+
+    @Column(nullable = false)
+    private LocalDateTime archivedAt;
+
+    // Gzipped CSV, one "id,nominee_id,voted_at" line per vote. No user_id: an
+    // archive must not be able to tie a voter to their choice
+    @Lob
+    @JsonIgnore
+    @Column(nullable = false)
+    private byte[] payload;
+}
@@ -0,0 +1,135 @@
+package com.ntrovote.otp;
+
+import com.ntrovote.model.Otp;
+import com.ntrovote.model.PhoneNumber;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// OTPs kept in a ConcurrentHashMap and reclaimed by a timing wheel. Entries are
+// lost on restart, which only means users request a new code.
+@Component
+@ConditionalOnProperty(name = "otp.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryOtpStore implements OtpStore {
+
+    // Rough per-entry cost on a 64-bit JVM with compressed oops: map node (32),
+    // OtpEntry (40), boxed Long key (16), table slot (~8)
+    private static final int ESTIMATED_ENTRY_BYTES = 96;
+
+    @Value("${otp.store.max-entries:1000000}")
+    private int maxEntries;
+
+    @Value("${otp.store.tick-ms:1000}")
+    private long tickMillis;
+
+    private final Map<Long, OtpEntry> entries = new ConcurrentHashMap<>();
+
+    // Entries still referenced by the wheel, including consumed or replaced ones
+    private final AtomicInteger tracked = new AtomicInteger();
+
+    private TimingWheel wheel;
+
+    private final ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "otp-expiry");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PostConstruct
+    public void start() {
+        wheel = new TimingWheel(tickMillis, System.currentTimeMillis(), this::expire);
+        ticker.scheduleAtFixedRate(() -> wheel.advanceTo(System.currentTimeMillis()),
+                tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        ticker.shutdownNow();
+    }
+
+    @Override
+    public void save(PhoneNumber phone, String code, LocalDateTime expiresAt) {
+        if (tracked.incrementAndGet() > maxEntries) {
+            tracked.decrementAndGet();
+            throw new RuntimeException("Too many pending OTPs, please try again later");
+        }
+        long expiresAtMillis = expiresAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        OtpEntry entry = new OtpEntry(phone.key(), Integer.parseInt(code), expiresAtMillis);
+        entries.put(phone.key(), entry);
+        wheel.schedule(entry);
+    }
+
+    // A lock-free read, then a conditional remove so only one caller can consume
+    // a given OTP
+    @Override
+    public VerifyResult verify(PhoneNumber phone, String code) {
+        OtpEntry entry = entries.get(phone.key());
+        if (entry == null) {
+            return VerifyResult.NOT_FOUND;
+        }
+        if (entry.code != parseCode(code)) {
+            return VerifyResult.INVALID;
+        }
+        if (entry.expiresAtMillis < System.currentTimeMillis()) {
+            return VerifyResult.EXPIRED;
+        }
+        return entries.remove(phone.key(), entry) ? VerifyResult.VALID : VerifyResult.NOT_FOUND;
+    }
+
+    @Override
+    public List<Otp> findAll() {
+        List<Otp> otps = new ArrayList<>(entries.size());
+        for (OtpEntry entry : entries.values()) {
+            otps.add(new Otp(new PhoneNumber(entry.phoneKey), String.format("%06d", entry.code),
+                    LocalDateTime.ofInstant(Instant.ofEpochMilli(entry.expiresAtMillis), ZoneId.systemDefault())));
+        }
+        return otps;
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("store", "memory");
+        stats.put("entries", entries.size());
+        stats.put("tracked", tracked.get());
+        stats.put("maxEntries", maxEntries);
+        stats.put("estimatedBytes", (long) tracked.get() * ESTIMATED_ENTRY_BYTES);
+        return stats;
+    }
+
+    private void expire(OtpEntry entry) {
+        entries.remove(entry.phoneKey, entry);
+        tracked.decrementAndGet();
+    }
+
+    // Codes are six digits; anything else can never match
+    private static int parseCode(String code) {
+        if (code == null || code.length() != 6) {
+            return -1;
+        }
+        int value = 0;
+        for (int i = 0; i < 6; i++) {
+            char c = code.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+}
@@ -0,0 +1,60 @@
+package com.ntrovote.otp;
+
+import com.ntrovote.model.Otp;
+import com.ntrovote.model.PhoneNumber;
+import com.ntrovote.repository.OtpRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+// OTPs in the otp_codes table, keyed by phone key; survives restarts and can be shared by several instances
+@Component
+@ConditionalOnProperty(name = "otp.store", havingValue = "jpa")
+public class JpaOtpStore implements OtpStore {
+
+    @Autowired
+    private OtpRepository otpRepository;
+
+    @Override
+    public void save(PhoneNumber phone, String code, LocalDateTime expiresAt) {
+        otpRepository.save(new Otp(phone, code, expiresAt));
+    }
+
+    @Override
+    public VerifyResult verify(PhoneNumber phone, String code) {
+        Optional<Otp> otpOpt = otpRepository.findById(phone.key());
+        if (otpOpt.isEmpty()) {
+            return VerifyResult.NOT_FOUND;
+        }
+        Otp otp = otpOpt.get();
+        if (!otp.getCode().equals(code)) {
+            return VerifyResult.INVALID;
+        }
+        if (otp.getExpiresAt().isBefore(LocalDateTime.now())) {
+            return VerifyResult.EXPIRED;
+        }
+        otpRepository.delete(otp);
+        return VerifyResult.VALID;
+    }
+
+    @Override
+    public List<Otp> findAll() {
+        return otpRepository.findAll();
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        return Map.of("store", "jpa", "entries", otpRepository.count());
+    }
+
+    @Scheduled(fixedDelayString = "${otp.store.purge-interval-ms:60000}")
+    public void purgeExpired() {
+        otpRepository.deleteByExpiresAtBefore(LocalDateTime.now());
+    }
+}
@@ -0,0 +1,17 @@
+package com.ntrovote.otp;
+
+// One outstanding OTP. Also serves as its own timing-wheel node (next) so an
+// entry costs a single object besides its key.
+final class OtpEntry {
+    final long phoneKey;
+    final int code;
+    final long expiresAtMillis;
+    long deadlineTick;
+    OtpEntry next;
+
+    OtpEntry(long phoneKey, int code, long expiresAtMillis) {
+        this.phoneKey = phoneKey;
+        this.code = code;
+        this.expiresAtMillis = expiresAtMillis;
+    }
+}
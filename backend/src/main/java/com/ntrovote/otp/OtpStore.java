@@ -0,0 +1,26 @@
+package com.ntrovote.otp;
+
+import com.ntrovote.model.Otp;
+import com.ntrovote.model.PhoneNumber;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+// Where issued OTPs live until they are verified or expire
+public interface OtpStore {
+
+    enum VerifyResult {
+        VALID, INVALID, EXPIRED, NOT_FOUND
+    }
+
+    // Replaces any outstanding OTP for the phone
+    void save(PhoneNumber phone, String code, LocalDateTime expiresAt);
+
+    // Consumes the OTP when the code matches and it hasn't expired
+    VerifyResult verify(PhoneNumber phone, String code);
+
+    List<Otp> findAll();
+
+    Map<String, Object> getStats();
+}
@@ -0,0 +1,94 @@
+package com.ntrovote.otp;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+// Hierarchical timing wheel: three levels of 64 slots, each level 64x coarser
+// than the one below. Scheduling pushes onto a slot's lock-free stack; only the
+// ticker thread drains slots, cascading entries down a level as their time nears.
+// An entry scheduled while its slot is being drained may fire up to one
+// rotation late; callers check the deadline themselves, the wheel only reclaims.
+final class TimingWheel {
+
+    private static final int LEVELS = 3;
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int MASK = SLOTS - 1;
+
+    private final long tickMillis;
+    private final long startMillis;
+    private final Consumer<OtpEntry> onExpire;
+    private final AtomicReferenceArray<OtpEntry> slots = new AtomicReferenceArray<>(LEVELS * SLOTS);
+    private volatile long currentTick;
+
+    TimingWheel(long tickMillis, long startMillis, Consumer<OtpEntry> onExpire) {
+        this.tickMillis = tickMillis;
+        this.startMillis = startMillis;
+        this.onExpire = onExpire;
+    }
+
+    void schedule(OtpEntry entry) {
+        entry.deadlineTick = Math.max(0, (entry.expiresAtMillis - startMillis + tickMillis - 1) / tickMillis);
+        place(entry);
+    }
+
+    // Advances the wheel up to the given wall-clock time
+    void advanceTo(long nowMillis) {
+        long target = (nowMillis - startMillis) / tickMillis;
+        while (currentTick < target) {
+            long tick = currentTick + 1;
+            currentTick = tick;
+            for (int level = LEVELS - 1; level > 0; level--) {
+                if ((tick & ((1L << (SLOT_BITS * level)) - 1)) == 0) {
+                    cascade(level, (int) ((tick >>> (SLOT_BITS * level)) & MASK));
+                }
+            }
+            OtpEntry entry = slots.getAndSet((int) (tick & MASK), null);
+            while (entry != null) {
+                OtpEntry next = entry.next;
+                entry.next = null;
+                if (entry.deadlineTick <= tick) {
+                    onExpire.accept(entry);
+                } else {
+                    place(entry);
+                }
+                entry = next;
+            }
+        }
+    }
+
+    private void cascade(int level, int slot) {
+        OtpEntry entry = slots.getAndSet(level * SLOTS + slot, null);
+        while (entry != null) {
+            OtpEntry next = entry.next;
+            entry.next = null;
+            // Due this very tick (a deadline on a slot boundary): placing it would push it a tick later
+            if (entry.deadlineTick <= currentTick) {
+                onExpire.accept(entry);
+            } else {
+                place(entry);
+            }
+            entry = next;
+        }
+    }
+
+    private void place(OtpEntry entry) {
+        long now = currentTick;
+        long deadline = Math.max(entry.deadlineTick, now + 1);
+        long delta = deadline - now;
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= (1L << (SLOT_BITS * (level + 1)))) {
+            level++;
+        }
+        // Beyond the top level's range: park in the furthest slot and re-place later
+        if (delta >= (1L << (SLOT_BITS * LEVELS))) {
+            deadline = now + (1L << (SLOT_BITS * LEVELS)) - 1;
+        }
+        int index = level * SLOTS + (int) ((deadline >>> (SLOT_BITS * level)) & MASK);
+        OtpEntry head;
+        do {
+            head = slots.get(index);
+            entry.next = head;
+        } while (!slots.compareAndSet(index, head, entry));
+    }
+}
@@ -0,0 +1,178 @@
+package com.ntrovote.ratelimit;
+
+import com.ntrovote.model.PhoneNumber;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Throttles OTP requests and guesses per client IP and per canonical phone,
+// before AuthService does any work. The IP is checked first so one client
+// cycling through phone numbers is stopped without growing the phone table.
+@Component
+public class AuthRateLimiter {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${ratelimit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${ratelimit.max-keys:131072}")
+    private int maxKeys;
+
+    @Value("${ratelimit.send-otp.phone.capacity:3}")
+    private int sendPhoneCapacity;
+
+    @Value("${ratelimit.send-otp.phone.period-ms:600000}")
+    private long sendPhonePeriodMs;
+
+    @Value("${ratelimit.send-otp.ip.capacity:60}")
+    private int sendIpCapacity;
+
+    @Value("${ratelimit.send-otp.ip.period-ms:60000}")
+    private long sendIpPeriodMs;
+
+    @Value("${ratelimit.verify-otp.phone.capacity:5}")
+    private int verifyPhoneCapacity;
+
+    @Value("${ratelimit.verify-otp.phone.period-ms:300000}")
+    private long verifyPhonePeriodMs;
+
+    @Value("${ratelimit.verify-otp.ip.capacity:120}")
+    private int verifyIpCapacity;
+
+    @Value("${ratelimit.verify-otp.ip.period-ms:60000}")
+    private long verifyIpPeriodMs;
+
+    private Limit sendOtp;
+
+    private Limit verifyOtp;
+
+    @PostConstruct
+    public void init() {
+        sendOtp = new Limit("send_otp",
+                new TokenBucketTable("send-otp.ip", sendIpCapacity, sendIpPeriodMs, maxKeys),
+                new TokenBucketTable("send-otp.phone", sendPhoneCapacity, sendPhonePeriodMs, maxKeys));
+        verifyOtp = new Limit("verify_otp",
+                new TokenBucketTable("verify-otp.ip", verifyIpCapacity, verifyIpPeriodMs, maxKeys),
+                new TokenBucketTable("verify-otp.phone", verifyPhoneCapacity, verifyPhonePeriodMs, maxKeys));
+    }
+
+    // Each returns 0 when the request may proceed, otherwise milliseconds to wait
+    public long checkSendOtp(String rawPhone, String clientIp) {
+        return check(sendOtp, rawPhone, clientIp);
+    }
+
+    public long checkVerifyOtp(String rawPhone, String clientIp) {
+        return check(verifyOtp, rawPhone, clientIp);
+    }
+
+    private long check(Limit limit, String rawPhone, String clientIp) {
+        if (!enabled) {
+            return 0;
+        }
+        long wait = limit.byIp.tryAcquire(ipKey(clientIp));
+        if (wait > 0) {
+            limit.rejectedByIp.increment();
+            return wait;
+        }
+        // Unparseable phones are rejected by AuthService; the IP bucket still counts them
+        long phoneKey = PhoneNumber.toKey(rawPhone);
+        if (phoneKey > 0) {
+            wait = limit.byPhone.tryAcquire(phoneKey);
+            if (wait > 0) {
+                limit.rejectedByPhone.increment();
+                return wait;
+            }
+        }
+        return 0;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        for (Limit limit : new Limit[] { sendOtp, verifyOtp }) {
+            stats.put(limit.byIp.name(), limit.byIp.getStats());
+            stats.put(limit.byPhone.name(), limit.byPhone.getStats());
+        }
+        return stats;
+    }
+
+    // IPv4 addresses map to themselves; IPv6 clients are limited per /64, since
+    // a single host usually controls a whole /64
+    static long ipKey(String ip) {
+        if (ip == null) {
+            return 0;
+        }
+        long ipv4 = parseIpv4(ip);
+        if (ipv4 >= 0) {
+            return ipv4 | 1L << 32;
+        }
+        if (ip.indexOf(':') < 0) {
+            return ip.hashCode();
+        }
+        try {
+            // An IPv6 literal, so this parses without a DNS lookup
+            byte[] address = InetAddress.getByName(ip).getAddress();
+            long prefix = 0;
+            for (int i = 0; i < 8 && i < address.length; i++) {
+                prefix = prefix << 8 | (address[i] & 0xff);
+            }
+            return prefix;
+        } catch (UnknownHostException e) {
+            return ip.hashCode();
+        }
+    }
+
+    private static long parseIpv4(String ip) {
+        long address = 0;
+        int octet = -1;
+        int dots = 0;
+        for (int i = 0; i < ip.length(); i++) {
+            char c = ip.charAt(i);
+            if (c >= '0' && c <= '9') {
+                octet = (octet < 0 ? 0 : octet * 10) + (c - '0');
+                if (octet > 255) {
+                    return -1;
+                }
+            } else if (c == '.' && octet >= 0 && dots < 3) {
+                address = address << 8 | octet;
+                octet = -1;
+                dots++;
+            } else {
+                return -1;
+            }
+        }
+        return dots == 3 && octet >= 0 ? address << 8 | octet : -1;
+    }
+
+    private final class Limit {
+        final TokenBucketTable byIp;
+        final TokenBucketTable byPhone;
+        final Counter rejectedByIp;
+        final Counter rejectedByPhone;
+
+        Limit(String endpoint, TokenBucketTable byIp, TokenBucketTable byPhone) {
+            this.byIp = byIp;
+            this.byPhone = byPhone;
+            this.rejectedByIp = meterRegistry.counter("ratelimit.rejected", "endpoint", endpoint, "key", "ip");
+            this.rejectedByPhone = meterRegistry.counter("ratelimit.rejected", "endpoint", endpoint, "key", "phone");
+            for (TokenBucketTable table : new TokenBucketTable[] { byIp, byPhone }) {
+                Gauge.builder("ratelimit.keys", table, TokenBucketTable::occupied)
+                        .tag("table", table.name()).register(meterRegistry);
+                FunctionCounter.builder("ratelimit.evictions", table, TokenBucketTable::evictions)
+                        .tag("table", table.name()).register(meterRegistry);
+            }
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.ntrovote.ratelimit;
+
+import java.security.SecureRandom;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Fixed-size, lock-free table of token buckets keyed by a long. A slot is one
+// key word and one state word; the state packs the last refill time with the
+// remaining milli-tokens, so taking a token is a CAS loop that allocates nothing.
+// A key lives in one of PROBE_WINDOW slots after its hash, which is salted per
+// table so clients cannot pick keys that land in one window. When the window is
+// full, a bucket that has filled back up is replaced: it is the same as a missing
+// one. If every bucket there is still refilling the new key is turned away
+// instead, so a flood of distinct keys can never reset a busy bucket.
+final class TokenBucketTable {
+
+    private static final int PROBE_WINDOW = 8;
+
+    private static final int TOKEN_BITS = 22;
+    private static final long TOKEN_MASK = (1L << TOKEN_BITS) - 1;
+    private static final long MILLI = 1000;
+
+    // 0 marks an empty key slot and a never-used (full) bucket
+    private static final long EMPTY = 0;
+
+    private final String name;
+    private final int capacity;
+    private final long periodMs;
+    private final long capacityMilli;
+    private final double refillMilliPerMs;
+    private final AtomicLongArray keys;
+    private final AtomicLongArray states;
+    private final int mask;
+    private final long startNanos = System.nanoTime();
+
+    private final AtomicInteger occupied = new AtomicInteger();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder overflows = new LongAdder();
+
+    private final long seed = new SecureRandom().nextLong();
+
+    // capacity tokens, refilled evenly over periodMs
+    TokenBucketTable(String name, int capacity, long periodMs, int maxKeys) {
+        if (capacity < 1 || capacity * MILLI > TOKEN_MASK || periodMs < 1) {
+            throw new IllegalArgumentException("Invalid rate limit for " + name + ": " + capacity + "/" + periodMs + "ms");
+        }
+        int slots = Integer.highestOneBit(Math.max(PROBE_WINDOW, maxKeys) - 1) << 1;
+        this.name = name;
+        this.capacity = capacity;
+        this.periodMs = periodMs;
+        this.capacityMilli = capacity * MILLI;
+        this.refillMilliPerMs = (double) capacityMilli / periodMs;
+        this.keys = new AtomicLongArray(slots);
+        this.states = new AtomicLongArray(slots);
+        this.mask = slots - 1;
+    }
+
+    // 0 when a token was taken, otherwise the milliseconds until one will be available
+    long tryAcquire(long key) {
+        if (key == EMPTY) {
+            key = Long.MIN_VALUE;
+        }
+        long now = nowMs();
+        int slot = slotFor(key, now);
+        if (slot < 0) {
+            overflows.increment();
+            rejected.increment();
+            return -slot;
+        }
+        while (true) {
+            long state = states.get(slot);
+            long tokens = capacityMilli;
+            long last = now;
+            if (state != EMPTY) {
+                tokens = state & TOKEN_MASK;
+                last = state >>> TOKEN_BITS;
+                long added = (long) ((now - last) * refillMilliPerMs);
+                // Keep the old timestamp until at least one milli-token accrues,
+                // or frequent callers would never refill
+                if (added > 0) {
+                    tokens = Math.min(capacityMilli, tokens + added);
+                    last = now;
+                }
+            }
+            if (tokens < MILLI) {
+                rejected.increment();
+                return Math.max(1, (long) Math.ceil((MILLI - tokens) / refillMilliPerMs));
+            }
+            if (states.compareAndSet(slot, state, (last << TOKEN_BITS) | (tokens - MILLI))) {
+                return 0;
+            }
+        }
+    }
+
+    // The key's slot, or minus the milliseconds until a bucket in its window refills
+    private int slotFor(long key, long now) {
+        int start = (int) mix(key ^ seed) & mask;
+        while (true) {
+            int empty = -1;
+            for (int i = 0; i < PROBE_WINDOW; i++) {
+                int slot = (start + i) & mask;
+                long current = keys.get(slot);
+                if (current == key) {
+                    return slot;
+                }
+                if (current == EMPTY && empty < 0) {
+                    empty = slot;
+                }
+            }
+            if (empty >= 0) {
+                if (keys.compareAndSet(empty, EMPTY, key)) {
+                    occupied.incrementAndGet();
+                    return empty;
+                }
+                // Lost the slot to another key, or to this key on another thread; look again
+                continue;
+            }
+            int victim = start;
+            long fullest = -1;
+            for (int i = 0; i < PROBE_WINDOW; i++) {
+                int slot = (start + i) & mask;
+                long tokens = tokensAt(states.get(slot), now);
+                if (tokens > fullest) {
+                    fullest = tokens;
+                    victim = slot;
+                }
+            }
+            if (fullest < capacityMilli) {
+                long wait = (long) Math.ceil((capacityMilli - fullest) / refillMilliPerMs);
+                return (int) -Math.max(1, Math.min(Integer.MAX_VALUE, wait));
+            }
+            long victimKey = keys.get(victim);
+            if (victimKey != EMPTY && keys.compareAndSet(victim, victimKey, key)) {
+                // A caller still holding the old key may charge this fresh bucket once; harmless
+                states.set(victim, EMPTY);
+                evictions.increment();
+                return victim;
+            }
+        }
+    }
+
+    private long tokensAt(long state, long now) {
+        if (state == EMPTY) {
+            return capacityMilli;
+        }
+        long added = (long) ((now - (state >>> TOKEN_BITS)) * refillMilliPerMs);
+        return Math.min(capacityMilli, (state & TOKEN_MASK) + added);
+    }
+
+    // Milliseconds since the table was created, starting at 1 so a written state is never EMPTY
+    private long nowMs() {
+        return (System.nanoTime() - startNanos) / 1_000_000 + 1;
+    }
+
+    // SplitMix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    String name() {
+        return name;
+    }
+
+    int occupied() {
+        return occupied.get();
+    }
+
+    long evictions() {
+        return evictions.sum();
+    }
+
+    Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("capacity", capacity);
+        stats.put("periodMs", periodMs);
+        stats.put("slots", keys.length());
+        stats.put("occupied", occupied.get());
+        stats.put("evictions", evictions.sum());
+        stats.put("rejected", rejected.sum());
+        stats.put("overflows", overflows.sum());
+        return stats;
+    }
+}
@@ -1,12 +1,35 @@
 package com.ntrovote.repository;
 
 import com.ntrovote.model.Election;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ElectionRepository extends JpaRepository<Election, Long> {
     List<Election> findByStatus(Election.ElectionStatus status);
+
+    List<Election> findByStatusIn(Collection<Election.ElectionStatus> statuses);
+
+    // Both locks are held until commit. Vote writers take the shared one, so
+    // finalizing waits for votes in flight and votes arriving meanwhile then
+    // see the CLOSED status. (H2 has no shared row locks and takes FOR UPDATE.)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM Election e WHERE e.id = :id")
+    Optional<Election> findByIdForUpdate(@Param("id") Long id);
+
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("SELECT e FROM Election e WHERE e.id = :id")
+    Optional<Election> findByIdForVote(@Param("id") Long id);
+
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("SELECT e FROM Election e WHERE e.id IN :ids")
+    List<Election> findAllByIdForVote(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,9 @@
+package com.ntrovote.repository;
+
+import com.ntrovote.model.ElectionResult;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ElectionResultRepository extends JpaRepository<ElectionResult, Long> {
+}
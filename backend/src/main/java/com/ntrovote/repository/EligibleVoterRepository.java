@@ -1,14 +1,45 @@
 package com.ntrovote.repository;
 
 import com.ntrovote.model.EligibleVoter;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+
 @Repository
 public interface EligibleVoterRepository extends JpaRepository<EligibleVoter, Long> {
-    boolean existsByPhoneNumber(String phoneNumber);
+    boolean existsByPhoneKey(Long phoneKey);
 
+    // One DELETE statement instead of the derived load-then-remove
     @Transactional
-    void deleteByPhoneNumber(String phoneNumber);
+    @Modifying
+    @Query("DELETE FROM EligibleVoter e WHERE e.phoneKey = :phoneKey")
+    int deleteByPhoneKey(@Param("phoneKey") Long phoneKey);
+
+    @Query("SELECT e.phoneKey FROM EligibleVoter e WHERE e.phoneKey IS NOT NULL")
+    List<Long> findAllPhoneKeys();
+
+    @Query("SELECT COUNT(e) FROM EligibleVoter e WHERE EXISTS "
+            + "(SELECT v.id FROM Vote v WHERE v.election.id = :electionId AND v.user.phoneKey = e.phoneKey)")
+    long countVoted(@Param("electionId") Long electionId);
+
+    // Keyset pages: pass the last id of the previous page as afterId
+    @Query("SELECT e.id AS id, e.phoneNumber AS phoneNumber, e.name AS name FROM EligibleVoter e "
+            + "WHERE e.id > :afterId AND EXISTS "
+            + "(SELECT v.id FROM Vote v WHERE v.election.id = :electionId AND v.user.phoneKey = e.phoneKey) "
+            + "ORDER BY e.id")
+    List<EligibleVoterRow> findVotedAfter(@Param("electionId") Long electionId, @Param("afterId") long afterId,
+            Pageable pageable);
+
+    @Query("SELECT e.id AS id, e.phoneNumber AS phoneNumber, e.name AS name FROM EligibleVoter e "
+            + "WHERE e.id > :afterId AND NOT EXISTS "
+            + "(SELECT v.id FROM Vote v WHERE v.election.id = :electionId AND v.user.phoneKey = e.phoneKey) "
+            + "ORDER BY e.id")
+    List<EligibleVoterRow> findNotVotedAfter(@Param("electionId") Long electionId, @Param("afterId") long afterId,
+            Pageable pageable);
 }
@@ -0,0 +1,10 @@
+package com.ntrovote.repository;
+
+// Lightweight row for streaming the voter roll without loading entities
+public interface EligibleVoterRow {
+    Long getId();
+
+    String getPhoneNumber();
+
+    String getName();
+}
@@ -0,0 +1,10 @@
+package com.ntrovote.repository;
+
+// Per-nominee result row for an election
+public interface NomineeVoteCount {
+    Long getNomineeId();
+
+    String getName();
+
+    long getVoteCount();
+}
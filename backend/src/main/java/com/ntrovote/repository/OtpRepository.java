@@ -2,8 +2,19 @@ package com.ntrovote.repository;
 
 import com.ntrovote.model.Otp;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
 
 @Repository
-public interface OtpRepository extends JpaRepository<Otp, String> {
+public interface OtpRepository extends JpaRepository<Otp, Long> {
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM Otp o WHERE o.expiresAt < :now")
+    int deleteByExpiresAtBefore(@Param("now") LocalDateTime now);
 }
@@ -0,0 +1,18 @@
+package com.ntrovote.repository;
+
+import java.time.LocalDateTime;
+
+// Archive chunk metadata, listed without loading the payloads
+public interface VoteArchiveInfo {
+    Long getId();
+
+    long getFirstVoteId();
+
+    long getLastVoteId();
+
+    int getVoteCount();
+
+    int getCompressedBytes();
+
+    LocalDateTime getArchivedAt();
+}
@@ -0,0 +1,17 @@
+package com.ntrovote.repository;
+
+import com.ntrovote.model.VoteArchive;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface VoteArchiveRepository extends JpaRepository<VoteArchive, Long> {
+    @Query("SELECT a.id AS id, a.firstVoteId AS firstVoteId, a.lastVoteId AS lastVoteId, a.voteCount AS voteCount, "
+            + "a.compressedBytes AS compressedBytes, a.archivedAt AS archivedAt "
+            + "FROM VoteArchive a WHERE a.electionId = :electionId ORDER BY a.id")
+    List<VoteArchiveInfo> findInfoByElectionId(@Param("electionId") Long electionId);
+}
@@ -1,7 +1,10 @@
 package com.ntrovote.repository;
 
 import com.ntrovote.model.Vote;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -12,9 +15,21 @@ public interface VoteRepository extends JpaRepository<Vote, Long> {
 
     long countByNomineeId(Long nomineeId);
 
-    void deleteByElectionId(Long electionId);
-
-    List<Vote> findByElectionId(Long electionId);
+    // Keyset pages of an election's votes: pass the last id of the previous page as afterId
+    @Query("SELECT new com.ntrovote.repository.VoteRow(v.id, u.id, u.phone, v.nominee.id, v.votedAt) "
+            + "FROM Vote v JOIN v.user u WHERE v.election.id = :electionId AND v.id > :afterId ORDER BY v.id")
+    List<VoteRow> findRowsByElectionId(@Param("electionId") Long electionId, @Param("afterId") long afterId,
+            Pageable pageable);
 
     long countByElectionId(Long electionId);
+
+    // Rows of [electionId, nomineeId, count]
+    @Query("SELECT v.election.id, v.nominee.id, COUNT(v) FROM Vote v GROUP BY v.election.id, v.nominee.id")
+    List<Object[]> countGroupedByElectionAndNominee();
+
+    // One aggregate query for the whole ballot; nominees without votes count as 0
+    @Query("SELECT n.id AS nomineeId, n.name AS name, COUNT(v.id) AS voteCount "
+            + "FROM Nominee n LEFT JOIN Vote v ON v.nominee = n "
+            + "WHERE n.election.id = :electionId GROUP BY n.id, n.name ORDER BY n.id")
+    List<NomineeVoteCount> countVotesByNominee(@Param("electionId") Long electionId);
 }
@@ -0,0 +1,8 @@
+package com.ntrovote.repository;
+
+import java.time.LocalDateTime;
+
+// One vote as the columns readers actually use; built straight from the
+// query result, without Vote, User, Election or Nominee entities
+public record VoteRow(Long id, Long userId, String phone, Long nomineeId, LocalDateTime votedAt) {
+}
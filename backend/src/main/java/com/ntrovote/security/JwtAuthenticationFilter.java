@@ -1,12 +1,18 @@
 package com.ntrovote.security;
 
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -14,6 +20,9 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
@@ -24,35 +33,82 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private UserDetailsService userDetailsService;
 
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // "claims" trusts the signed role claim; "userdetails" also loads the account from the DB
+    @Value("${jwt.auth.mode:claims}")
+    private String authMode;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
             throws ServletException, IOException {
 
+        long start = System.nanoTime();
+        String result = "anonymous";
         final String authorizationHeader = request.getHeader("Authorization");
 
-        String username = null;
-        String jwt = null;
+        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            String jwt = authorizationHeader.substring(7);
+            UserDetails userDetails = "userdetails".equals(authMode)
+                    ? authenticateWithUserDetails(jwt)
+                    : authenticateWithClaims(jwt);
 
-        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            jwt = authorizationHeader.substring(7);
-            try {
-                username = jwtUtil.extractUsername(jwt);
-            } catch (Exception e) {
-                // Invalid token
-            }
-        }
-
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
-
-            if (jwtUtil.validateToken(jwt, userDetails)) {
+            if (userDetails != null) {
                 UsernamePasswordAuthenticationToken usernamePasswordAuthenticationToken = new UsernamePasswordAuthenticationToken(
                         userDetails, null, userDetails.getAuthorities());
                 usernamePasswordAuthenticationToken
                         .setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(usernamePasswordAuthenticationToken);
+                result = "authenticated";
+            } else {
+                result = "rejected";
             }
         }
+        // Only the token check is timed, not the rest of the chain
+        meterRegistry.timer("jwt.filter", "mode", authMode, "result", result)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
         chain.doFilter(request, response);
     }
+
+    // Recently seen tokens cost one digest and a map lookup; new ones are
+    // verified once and the principal is built from the role claim
+    private UserDetails authenticateWithClaims(String jwt) {
+        String digest = verifiedTokenCache.digest(jwt);
+        VerifiedTokenCache.VerifiedToken token = verifiedTokenCache.get(digest);
+        if (token == null) {
+            Claims claims = parse(jwt);
+            if (claims == null) {
+                return null;
+            }
+            token = new VerifiedTokenCache.VerifiedToken(claims.getSubject(), claims.get("role", String.class),
+                    claims.getExpiration().getTime());
+            verifiedTokenCache.put(digest, token);
+        }
+        List<GrantedAuthority> authorities = token.role() == null
+                ? Collections.emptyList()
+                : List.of(new SimpleGrantedAuthority(token.role()));
+        return new User(token.username(), "", authorities);
+    }
+
+    private UserDetails authenticateWithUserDetails(String jwt) {
+        Claims claims = parse(jwt);
+        if (claims == null) {
+            return null;
+        }
+        return this.userDetailsService.loadUserByUsername(claims.getSubject());
+    }
+
+    // Signature and expiry are checked by the parser; null means the token is invalid
+    private Claims parse(String jwt) {
+        try {
+            return jwtUtil.parseClaims(jwt);
+        } catch (Exception e) {
+            return null;
+        }
+    }
 }
@@ -1,6 +1,7 @@
 package com.ntrovote.security;
 
 import com.ntrovote.model.Admin;
+import com.ntrovote.model.PhoneNumber;
 import com.ntrovote.model.User;
 import com.ntrovote.repository.AdminRepository;
 import com.ntrovote.repository.UserRepository;
@@ -34,8 +35,9 @@ public class UserDetailsServiceImpl implements UserDetailsService {
                     Collections.singletonList(new SimpleGrantedAuthority("ROLE_ADMIN")));
         }
 
-        // Try to find user (phone number)
-        Optional<User> user = userRepository.findByPhone(username);
+        // Try to find user (phone number); anything that isn't one can't be a voter
+        long phoneKey = PhoneNumber.toKey(username);
+        Optional<User> user = phoneKey < 0 ? Optional.empty() : userRepository.findByPhoneKey(phoneKey);
         if (user.isPresent()) {
             return new org.springframework.security.core.userdetails.User(
                     user.get().getPhone(),
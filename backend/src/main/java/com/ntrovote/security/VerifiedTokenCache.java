@@ -0,0 +1,94 @@
+package com.ntrovote.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Bounded cache of tokens whose signature has already been checked, keyed by a
+// SHA-256 digest so raw bearer tokens are never retained. Every authenticated
+// request reads it, so reads take no lock: they only stamp the entry's last use.
+// Eviction is approximate LRU. Once over the limit, one writer drops expired
+// entries and the least recently used tenth in a single pass.
+@Component
+public class VerifiedTokenCache {
+
+    public record VerifiedToken(String username, String role, long expiresAtMillis) {
+    }
+
+    private static final class Entry {
+        final VerifiedToken token;
+        volatile long lastUsedNanos;
+
+        Entry(VerifiedToken token) {
+            this.token = token;
+            this.lastUsedNanos = System.nanoTime();
+        }
+    }
+
+    private final int maxEntries;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    // Held only by the writer that is evicting; others skip eviction meanwhile
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    public VerifiedTokenCache(@Value("${jwt.cache.max-entries:10000}") int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    public String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(sha256.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Returns null when the token is unknown or has expired since it was cached
+    public VerifiedToken get(String digest) {
+        Entry entry = entries.get(digest);
+        if (entry == null || entry.token.expiresAtMillis() <= System.currentTimeMillis()) {
+            return null;
+        }
+        entry.lastUsedNanos = System.nanoTime();
+        return entry.token;
+    }
+
+    public void put(String digest, VerifiedToken token) {
+        entries.put(digest, new Entry(token));
+        if (entries.size() > maxEntries && evictionLock.tryLock()) {
+            try {
+                evict();
+            } finally {
+                evictionLock.unlock();
+            }
+        }
+    }
+
+    private void evict() {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(entry -> entry.token.expiresAtMillis() <= now);
+        int excess = entries.size() - maxEntries;
+        if (excess <= 0) {
+            return;
+        }
+        // Drop a tenth at once so the scan is paid once per maxEntries / 10 puts
+        long[] lastUsed = entries.values().stream().mapToLong(entry -> entry.lastUsedNanos).toArray();
+        if (lastUsed.length == 0) {
+            return;
+        }
+        Arrays.sort(lastUsed);
+        int drop = Math.min(lastUsed.length, Math.max(excess, maxEntries / 10));
+        long cutoff = lastUsed[drop - 1];
+        entries.values().removeIf(entry -> entry.lastUsedNanos - cutoff <= 0);
+    }
+}
@@ -1,32 +1,46 @@
 package com.ntrovote.service;
 
 import com.ntrovote.model.Admin;
+import com.ntrovote.model.ElectionResult;
 import com.ntrovote.model.EligibleVoter;
 import com.ntrovote.model.Otp;
+import com.ntrovote.model.PhoneNumber;
 import com.ntrovote.model.User;
-import com.ntrovote.model.Vote;
+import com.ntrovote.otp.OtpStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.ntrovote.repository.AdminRepository;
 import com.ntrovote.repository.EligibleVoterRepository;
-import com.ntrovote.repository.OtpRepository;
+import com.ntrovote.repository.EligibleVoterRow;
 import com.ntrovote.repository.UserRepository;
 import com.ntrovote.repository.VoteRepository;
 import com.ntrovote.security.JwtUtil;
+import com.ntrovote.sms.SmsDispatcher;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import org.springframework.beans.factory.annotation.Value;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
 
 @Service
 public class AuthService {
 
     @Autowired
-    private OtpRepository otpRepository;
+    private OtpStore otpStore;
 
     @Autowired
     private UserRepository userRepository;
@@ -43,124 +57,97 @@ public class AuthService {
     @Autowired
     private EligibleVoterRepository eligibleVoterRepository;
 
+    @Autowired
+    private EligibilityIndex eligibilityIndex;
+
     @Autowired
     private VoteRepository voteRepository;
 
+    @Autowired
+    private ResultSnapshotService resultSnapshotService;
+
     @Autowired
     private PasswordEncoder passwordEncoder;
 
-    @Value("${twilio.account_sid}")
-    private String twilioAccountSid;
+    @Autowired
+    private ObjectMapper objectMapper;
 
-    @Value("${twilio.auth_token}")
-    private String twilioAuthToken;
+    public static final List<String> STATS_SECTIONS = List.of("voted", "notVoted");
 
-    @Value("${twilio.phone_number}")
-    private String twilioPhoneNumber;
+    @Value("${stats.stream.page-size:1000}")
+    private int statsPageSize;
 
-    // Helper to normalize phone numbers (simple version)
-    private String normalizePhone(String phone) {
-        if (phone == null)
-            return null;
-        String cleaned = phone.replaceAll("\\s+", ""); // remove spaces
-        if (!cleaned.startsWith("+")) {
-            return "+91" + cleaned; // Default to India +91 if no code
-        }
-        return cleaned;
-    }
-
-    public void sendOtp(String phone) {
-        String normalizedPhone = normalizePhone(phone);
-
-        // Check eligibility
-        if (!eligibleVoterRepository.existsByPhoneNumber(normalizedPhone)) {
-            // Also check raw just in case admin utilized raw number
-            if (!eligibleVoterRepository.existsByPhoneNumber(phone)) {
-                throw new RuntimeException("Phone number not eligible to vote");
-            } else {
-                // Admin used raw number, let's proceed with raw for consistency or update to
-                // normalized?
-                // For now, let's respect what's in DB for eligibility, but use normalized for
-                // SMS
-                normalizedPhone = phone;
-            }
-        }
+    @Autowired
+    private SmsDispatcher smsDispatcher;
 
-        // Generate 6-digit OTP
-        String code = String.format("%06d", new Random().nextInt(999999));
+    @Autowired
+    private MeterRegistry meterRegistry;
 
-        // Save to DB (overwrite existing)
-        Otp otp = new Otp(normalizedPhone, code, LocalDateTime.now().plusMinutes(5));
-        otpRepository.save(otp);
-
-        // Send SMS via Twilio
-        try {
-            String fromNumber = twilioPhoneNumber.startsWith("+") ? twilioPhoneNumber : "+" + twilioPhoneNumber;
-
-            com.twilio.Twilio.init(twilioAccountSid, twilioAuthToken);
-            com.twilio.rest.api.v2010.account.Message.creator(
-                    new com.twilio.type.PhoneNumber(normalizedPhone),
-                    new com.twilio.type.PhoneNumber(fromNumber),
-                    "Your NtroVote OTP is: " + code).create();
-            System.out.println("SMS sent to " + normalizedPhone);
-        } catch (Exception e) {
-            System.err.println("Failed to send SMS: " + e.getMessage());
-            // Fallback to console for development if SMS fails
-            System.out.println("OTP for " + normalizedPhone + ": " + code);
-        }
-    }
+    @Autowired
+    private PlatformTransactionManager transactionManager;
 
-    public String verifyOtp(String phone, String code) {
-        System.out.println("--- VERIFY OTP REQUEST ---");
-        System.out.println("Input Phone: " + phone);
-        System.out.println("Input Code: " + code);
+    // One short transaction per statistics page, so a slow download never holds
+    // a transaction (and its snapshot) open for the whole stream
+    private TransactionTemplate readOnlyTransaction;
 
-        String normalizedPhone = normalizePhone(phone);
-        System.out.println("Normalized Phone: " + normalizedPhone);
+    @PostConstruct
+    public void init() {
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
 
-        // Try finding by normalized first
-        Optional<Otp> otpOpt = otpRepository.findById(normalizedPhone);
+    public void sendOtp(String rawPhone) {
+        PhoneNumber phone = PhoneNumber.parse(rawPhone);
 
-        // logic fallback: if not found, try raw
-        if (otpOpt.isEmpty()) {
-            System.out.println("Not found by normalized, trying raw: " + phone);
-            otpOpt = otpRepository.findById(phone);
+        // Check eligibility against the in-memory roll; numbers that aren't on
+        // it are rejected without touching the database
+        if (!eligibilityIndex.contains(phone)) {
+            meterRegistry.counter("otp.issued", "outcome", "ineligible").increment();
+            throw new RuntimeException("Phone number not eligible to vote");
         }
 
-        if (otpOpt.isEmpty()) {
-            System.out.println("ERROR: OTP Record not found in DB.");
-            throw new RuntimeException("Invalid OTP");
-        }
+        // Generate 6-digit OTP
+        String code = String.format("%06d", new Random().nextInt(999999));
 
-        Otp otp = otpOpt.get();
-        System.out.println("Found OTP Record -> Phone: " + otp.getPhone() + ", Code: " + otp.getCode() + ", Expires: "
-                + otp.getExpiresAt());
+        // Store it (overwrites any outstanding OTP for this phone)
+        otpStore.save(phone, code, LocalDateTime.now().plusMinutes(5));
 
-        if (!otp.getCode().equals(code)) {
-            System.out.println("ERROR: Code mismatch. Expected: " + otp.getCode() + ", Got: " + code);
-            throw new RuntimeException("Invalid OTP");
+        // Hand the SMS to the async dispatcher; the OTP is already stored, so the
+        // request doesn't wait on the gateway
+        if (!smsDispatcher.submit(phone.toString(), "Your NtroVote OTP is: " + code)) {
+            meterRegistry.counter("otp.issued", "outcome", "busy").increment();
+            throw new RuntimeException("SMS service is busy, please try again");
         }
+        meterRegistry.counter("otp.issued", "outcome", "issued").increment();
+    }
 
-        if (otp.getExpiresAt().isBefore(LocalDateTime.now())) {
-            System.out.println("ERROR: OTP Expired. Now: " + LocalDateTime.now());
-            throw new RuntimeException("OTP Expired");
+    public String verifyOtp(String rawPhone, String code) {
+        PhoneNumber phone = PhoneNumber.parse(rawPhone);
+        OtpStore.VerifyResult result = otpStore.verify(phone, code);
+
+        meterRegistry.counter("otp.verified", "result", result.name().toLowerCase()).increment();
+        switch (result) {
+            case NOT_FOUND:
+                System.out.println("ERROR: OTP Record not found for " + phone);
+                throw new RuntimeException("Invalid OTP");
+            case INVALID:
+                System.out.println("ERROR: Code mismatch for " + phone);
+                throw new RuntimeException("Invalid OTP");
+            case EXPIRED:
+                System.out.println("ERROR: OTP Expired. Now: " + LocalDateTime.now());
+                throw new RuntimeException("OTP Expired");
+            default:
+                System.out.println("OTP Verified and Deleted for " + phone);
         }
 
-        // OTP Valid, clear it
-        otpRepository.delete(otp);
-        System.out.println("OTP Verified and Deleted.");
-
         // Create user if not exists
-        final String finalPhone = otp.getPhone(); // Use the format that was verified
-        User user = userRepository.findByPhone(finalPhone)
+        User user = userRepository.findByPhoneKey(phone.key())
                 .orElseGet(() -> {
-                    System.out.println("Creating new User for: " + finalPhone);
-                    return userRepository.save(new User(finalPhone));
+                    System.out.println("Creating new User for: " + phone);
+                    return userRepository.save(new User(phone));
                 });
 
-        System.out.println("User ID: " + user.getId());
-
-        // Generate JWT
+        // Generate JWT (the subject is the canonical "+<digits>" form)
         return jwtUtil.generateToken(user.getPhone(), "ROLE_USER");
     }
 
@@ -182,63 +169,140 @@ public class AuthService {
 
     // Admin Features
     public List<Otp> getAllOtps() {
-        return otpRepository.findAll();
+        return otpStore.findAll();
     }
 
+    public Map<String, Object> getOtpStoreStats() {
+        return otpStore.getStats();
+    }
+
+    @Transactional(readOnly = true)
     public List<EligibleVoter> getAllEligibleVoters() {
         return eligibleVoterRepository.findAll();
     }
 
-    public EligibleVoter addEligibleVoter(String phone, String name) {
-        // We enforce storing eligible voters with +91 if possible for consistency,
-        // OR we just store what is given but normalized
-        String normalizedPhone = normalizePhone(phone);
-
-        if (eligibleVoterRepository.existsByPhoneNumber(normalizedPhone)) {
+    public EligibleVoter addEligibleVoter(String rawPhone, String name) {
+        PhoneNumber phone = PhoneNumber.parse(rawPhone);
+        if (eligibleVoterRepository.existsByPhoneKey(phone.key())) {
             throw new RuntimeException("Voter already eligible");
         }
-        return eligibleVoterRepository.save(new EligibleVoter(normalizedPhone, name));
+        EligibleVoter saved = eligibleVoterRepository.save(new EligibleVoter(phone, name));
+        eligibilityIndex.add(phone);
+        return saved;
     }
 
-    public void removeEligibleVoter(String phone) {
-        String normalizedPhone = normalizePhone(phone);
-        if (eligibleVoterRepository.existsByPhoneNumber(normalizedPhone)) {
-            eligibleVoterRepository.deleteByPhoneNumber(normalizedPhone);
-        } else {
-            eligibleVoterRepository.deleteByPhoneNumber(phone);
-        }
+    public void removeEligibleVoter(String rawPhone) {
+        PhoneNumber phone = PhoneNumber.parse(rawPhone);
+        eligibleVoterRepository.deleteByPhoneKey(phone.key());
+        eligibilityIndex.remove(phone);
     }
 
+    @Transactional(readOnly = true)
     public Map<String, Object> getVotingStatistics(Long electionId) {
-        List<EligibleVoter> allVoters = eligibleVoterRepository.findAll();
-        List<Vote> votes = voteRepository.findByElectionId(electionId);
-        long totalEligible = allVoters.size();
-        long totalVoted = voteRepository.countByElectionId(electionId);
-
-        // Get list of phone numbers who voted
-        Set<String> votedPhones = votes.stream()
-                .map(vote -> vote.getUser().getPhone())
-                .collect(Collectors.toSet());
-
-        // Separate voters into voted and not voted
+        // Same shape as before, but built from the anti-join pages instead of
+        // loading every Vote entity and joining in memory
         List<Map<String, String>> voted = new ArrayList<>();
         List<Map<String, String>> notVoted = new ArrayList<>();
+        forEachVoterPage(electionId, true, 0, page -> page.forEach(row -> voted.add(toVoterInfo(row))));
+        forEachVoterPage(electionId, false, 0, page -> page.forEach(row -> notVoted.add(toVoterInfo(row))));
+
+        return Map.of(
+                "totalEligible", eligibleVoterRepository.count(),
+                "totalVoted", voteRepository.countByElectionId(electionId),
+                "voted", voted,
+                "notVoted", notVoted);
+    }
+
+    @Transactional(readOnly = true)
+    public Map<String, Object> getVotingSummary(Long electionId) {
+        Optional<ElectionResult> snapshot = resultSnapshotService.find(electionId);
+        if (snapshot.isPresent()) {
+            ElectionResult result = snapshot.get();
+            return Map.of(
+                    "totalEligible", result.getEligibleVoters(),
+                    "totalVoted", result.getTotalVotes(),
+                    "votedEligible", result.getVotedEligible(),
+                    "notVotedEligible", result.getEligibleVoters() - result.getVotedEligible());
+        }
+        long totalEligible = eligibleVoterRepository.count();
+        long votedEligible = eligibleVoterRepository.countVoted(electionId);
+        return Map.of(
+                "totalEligible", totalEligible,
+                "totalVoted", voteRepository.countByElectionId(electionId),
+                "votedEligible", votedEligible,
+                "notVotedEligible", totalEligible - votedEligible);
+    }
 
-        for (EligibleVoter voter : allVoters) {
-            Map<String, String> voterInfo = Map.of(
-                    "phone", voter.getPhoneNumber(),
-                    "name", voter.getName() != null ? voter.getName() : "N/A");
-            if (votedPhones.contains(voter.getPhoneNumber())) {
-                voted.add(voterInfo);
-            } else {
-                notVoted.add(voterInfo);
+    // Writes the summary line first, then one NDJSON line per voter, voted section
+    // before notVoted. Memory use is bounded by the page size. A client that
+    // dropped resumes with the section and id of the last line it received:
+    // that section continues after afterId and the sections after it are sent whole.
+    public void streamVotingStatistics(Long electionId, String status, String resumeSection, long afterId,
+            OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        Map<String, Object> summary = readOnlyTransaction.execute(tx -> getVotingSummary(electionId));
+        writer.write(objectMapper.writeValueAsString(summary));
+        writer.write('\n');
+        writer.flush();
+
+        boolean resuming = resumeSection != null;
+        for (String section : STATS_SECTIONS) {
+            if (status != null && !status.equals(section)) {
+                continue;
             }
+            // Sections before the cursor's were already sent in full
+            if (resuming && !section.equals(resumeSection)) {
+                continue;
+            }
+            streamVoters(electionId, section.equals("voted"), resuming ? afterId : 0, writer);
+            resuming = false;
         }
+        writer.flush();
+    }
 
+    private void streamVoters(Long electionId, boolean voted, long afterId, Writer writer) {
+        String status = voted ? "voted" : "notVoted";
+        forEachVoterPage(electionId, voted, afterId, page -> {
+            try {
+                for (EligibleVoterRow row : page) {
+                    Map<String, Object> line = new LinkedHashMap<>();
+                    line.put("status", status);
+                    line.put("id", row.getId());
+                    line.putAll(toVoterInfo(row));
+                    writer.write(objectMapper.writeValueAsString(line));
+                    writer.write('\n');
+                }
+                writer.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private void forEachVoterPage(Long electionId, boolean voted, long afterId,
+            Consumer<List<EligibleVoterRow>> consumer) {
+        Pageable page = PageRequest.of(0, statsPageSize);
+        long cursor = afterId;
+        while (true) {
+            long after = cursor;
+            // Joins the caller's transaction if there is one; the consumer runs outside it
+            List<EligibleVoterRow> rows = readOnlyTransaction.execute(tx -> voted
+                    ? eligibleVoterRepository.findVotedAfter(electionId, after, page)
+                    : eligibleVoterRepository.findNotVotedAfter(electionId, after, page));
+            if (rows.isEmpty()) {
+                return;
+            }
+            consumer.accept(rows);
+            if (rows.size() < statsPageSize) {
+                return;
+            }
+            cursor = rows.get(rows.size() - 1).getId();
+        }
+    }
+
+    private Map<String, String> toVoterInfo(EligibleVoterRow row) {
         return Map.of(
-                "totalEligible", totalEligible,
-                "totalVoted", totalVoted,
-                "voted", voted,
-                "notVoted", notVoted);
+                "phone", row.getPhoneNumber(),
+                "name", row.getName() != null ? row.getName() : "N/A");
     }
 }
@@ -0,0 +1,118 @@
+package com.ntrovote.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ntrovote.model.Election;
+import com.ntrovote.repository.ElectionRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// Serialized ballot payloads (/elections/active and /elections/{id}) with strong
+// ETags. Any election or nominee mutation bumps the version and drops every
+// entry, so a hit never needs the database or Jackson.
+@Service
+public class BallotCache {
+
+    public record Payload(byte[] body, String etag) {
+    }
+
+    // Repository rather than ElectionService, which invalidates this cache
+    @Autowired
+    private ElectionRepository electionRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Not read-only, so a configured replica never serves it: misses come right
+    // after a mutation, when a lagging replica would cache the old ballot
+    private TransactionTemplate loadTransaction;
+
+    private final AtomicLong version = new AtomicLong();
+
+    private final Map<String, VersionedPayload> entries = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        loadTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    public Payload getActiveElections() {
+        return get("active", () -> electionRepository.findByStatus(Election.ElectionStatus.ONGOING));
+    }
+
+    public Payload getElection(Long id) {
+        return get("election:" + id, () -> electionRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Election not found")));
+    }
+
+    public void invalidate() {
+        version.incrementAndGet();
+        entries.clear();
+    }
+
+    // Invalidating before commit would let a reader re-cache the old rows
+    public void invalidateOnCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidate();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                invalidate();
+            }
+        });
+    }
+
+    private Payload get(String key, Supplier<Object> loader) {
+        long current = version.get();
+        VersionedPayload cached = entries.get(key);
+        if (cached != null && cached.version == current) {
+            return cached.payload;
+        }
+        // Serialize inside the transaction so lazy nominees can load
+        byte[] body = loadTransaction.execute(tx -> serialize(loader.get()));
+        Payload payload = new Payload(body, etag(body));
+        // Don't publish if a mutation happened while loading
+        if (version.get() == current) {
+            entries.put(key, new VersionedPayload(current, payload));
+        }
+        return payload;
+    }
+
+    private byte[] serialize(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize ballot", e);
+        }
+    }
+
+    private static String etag(byte[] body) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(body);
+            return "\"" + HexFormat.of().formatHex(hash, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record VersionedPayload(long version, Payload payload) {
+    }
+}
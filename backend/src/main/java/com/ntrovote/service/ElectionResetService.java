@@ -0,0 +1,281 @@
+package com.ntrovote.service;
+
+import com.ntrovote.config.WorkerThreads;
+import com.ntrovote.model.VoteArchive;
+import com.ntrovote.repository.ElectionRepository;
+import com.ntrovote.repository.VoteArchiveInfo;
+import com.ntrovote.repository.VoteArchiveRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.GZIPOutputStream;
+
+// Deletes an election's votes in bounded chunks on a background thread,
+// optionally moving each chunk into vote_archives first. Every chunk is one
+// transaction holding the election row lock (see ElectionRepository): votes
+// cast meanwhile wait at most one chunk, and an archived chunk is exactly the
+// set of rows deleted with it. Only votes that existed when the first chunk ran
+// are reset; votes cast between chunks have higher ids and are kept.
+@Service
+public class ElectionResetService {
+
+    private static final Logger log = LoggerFactory.getLogger(ElectionResetService.class);
+
+    @Autowired
+    private ElectionRepository electionRepository;
+
+    @Autowired
+    private VoteArchiveRepository voteArchiveRepository;
+
+    @Autowired
+    private ResultSnapshotService resultSnapshotService;
+
+    @Autowired
+    private VoteTallyService voteTallyService;
+
+    @Autowired
+    private VotedUserIndex votedUserIndex;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private WorkerThreads workerThreads;
+
+    @Value("${reset.chunk-size:5000}")
+    private int chunkSize;
+
+    // Breathing room between chunks for replication and other writers
+    @Value("${reset.chunk-pause-ms:0}")
+    private long chunkPauseMs;
+
+    // Latest job per election, kept after it finishes so its outcome can be read
+    private final Map<Long, Job> jobs = new ConcurrentHashMap<>();
+
+    private ExecutorService executor;
+
+    @PostConstruct
+    public void start() {
+        executor = Executors.newSingleThreadExecutor(workerThreads.factory("election-reset"));
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    public Map<String, Object> startReset(Long electionId, boolean archive) {
+        if (!electionRepository.existsById(electionId)) {
+            throw new RuntimeException("Election not found");
+        }
+        Job job = new Job(electionId, archive);
+        if (jobs.compute(electionId, (id, previous) -> previous != null && !previous.isFinished() ? previous : job) != job) {
+            throw new RuntimeException("Reset already in progress");
+        }
+        executor.execute(() -> run(job));
+        return job.toMap();
+    }
+
+    public Map<String, Object> getStatus(Long electionId) {
+        Job job = jobs.get(electionId);
+        if (job == null) {
+            throw new RuntimeException("No reset found for this election");
+        }
+        return job.toMap();
+    }
+
+    public List<VoteArchiveInfo> getArchives(Long electionId) {
+        return voteArchiveRepository.findInfoByElectionId(electionId);
+    }
+
+    public Optional<VoteArchive> findArchive(Long archiveId) {
+        return voteArchiveRepository.findById(archiveId);
+    }
+
+    private void run(Job job) {
+        job.state = "RUNNING";
+        job.startedAt = LocalDateTime.now();
+        try {
+            // Results are recounted live from here on
+            resultSnapshotService.delete(job.electionId);
+            long afterId = 0;
+            while (true) {
+                long from = afterId;
+                Long last = transactionTemplate.execute(tx -> resetChunk(job, from));
+                if (last == null) {
+                    break;
+                }
+                afterId = last;
+                if (chunkPauseMs > 0) {
+                    Thread.sleep(chunkPauseMs);
+                }
+            }
+            job.state = "DONE";
+            log.info("Reset election {}: {} vote(s) deleted in {} chunk(s){}", job.electionId, job.deletedVotes,
+                    job.chunks, job.archive ? ", " + job.archivedVotes + " archived" : "");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.fail("Interrupted");
+        } catch (RuntimeException e) {
+            job.fail(e.getMessage());
+            // Some chunks may be gone; the live tally and voted users must match what is left
+            voteTallyService.rebuildElection(job.electionId);
+            votedUserIndex.rebuildElection(job.electionId);
+            log.error("Reset of election {} failed: {}", job.electionId, e.getMessage());
+        } finally {
+            job.finishedAt = LocalDateTime.now();
+        }
+    }
+
+    // Returns the last vote id removed, or null once none are left
+    private Long resetChunk(Job job, long afterId) {
+        electionRepository.findByIdForUpdate(job.electionId)
+                .orElseThrow(() -> new RuntimeException("Election not found"));
+        if (job.lastVoteId == null) {
+            job.lastVoteId = jdbcTemplate.queryForObject(
+                    "SELECT COALESCE(MAX(id), 0) FROM votes WHERE election_id = ?", Long.class, job.electionId);
+        }
+
+        long last;
+        if (job.archive) {
+            VoteArchive archive = archiveChunk(job.electionId, afterId, job.lastVoteId);
+            if (archive == null) {
+                syncInMemoryState(job.electionId);
+                return null;
+            }
+            voteArchiveRepository.save(archive);
+            job.archivedVotes += archive.getVoteCount();
+            job.archivedBytes += archive.getCompressedBytes();
+            last = archive.getLastVoteId();
+        } else {
+            List<Long> ids = jdbcTemplate.queryForList(
+                    "SELECT id FROM votes WHERE election_id = ? AND id > ? AND id <= ? ORDER BY id LIMIT " + chunkSize,
+                    Long.class, job.electionId, afterId, job.lastVoteId);
+            if (ids.isEmpty()) {
+                syncInMemoryState(job.electionId);
+                return null;
+            }
+            last = ids.get(ids.size() - 1);
+        }
+
+        // The lock keeps new votes out of the range, so this deletes exactly the chunk
+        job.deletedVotes += jdbcTemplate.update(
+                "DELETE FROM votes WHERE election_id = ? AND id > ? AND id <= ?", job.electionId, afterId, last);
+        job.chunks++;
+        return last;
+    }
+
+    // Runs in the final chunk's transaction, while voters are still held off;
+    // only votes cast during the reset are left to count
+    private void syncInMemoryState(Long electionId) {
+        voteTallyService.rebuildElection(electionId);
+        votedUserIndex.rebuildElection(electionId);
+    }
+
+    private VoteArchive archiveChunk(Long electionId, long afterId, long lastVoteId) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        long[] range = { 0, 0 };
+        int[] count = { 0 };
+        try (Writer writer = new OutputStreamWriter(new GZIPOutputStream(bytes), StandardCharsets.UTF_8)) {
+            jdbcTemplate.query(
+                    "SELECT id, nominee_id, voted_at FROM votes WHERE election_id = ? AND id > ? AND id <= ? "
+                            + "ORDER BY id LIMIT " + chunkSize,
+                    rs -> {
+                        try {
+                            long id = rs.getLong(1);
+                            if (count[0]++ == 0) {
+                                range[0] = id;
+                            }
+                            range[1] = id;
+                            writer.write(id + "," + rs.getLong(2) + "," + rs.getTimestamp(3).toLocalDateTime() + "\n");
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    },
+                    electionId, afterId, lastVoteId);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (count[0] == 0) {
+            return null;
+        }
+        VoteArchive archive = new VoteArchive();
+        archive.setElectionId(electionId);
+        archive.setFirstVoteId(range[0]);
+        archive.setLastVoteId(range[1]);
+        archive.setVoteCount(count[0]);
+        archive.setPayload(bytes.toByteArray());
+        archive.setCompressedBytes(archive.getPayload().length);
+        archive.setArchivedAt(LocalDateTime.now());
+        return archive;
+    }
+
+    // Written by the reset thread only; volatile so status reads see progress
+    private static final class Job {
+        final Long electionId;
+        final boolean archive;
+        // Highest vote id when the reset began, read under the first chunk's lock
+        Long lastVoteId;
+        volatile String state = "QUEUED";
+        volatile long chunks;
+        volatile long deletedVotes;
+        volatile long archivedVotes;
+        volatile long archivedBytes;
+        volatile LocalDateTime startedAt;
+        volatile LocalDateTime finishedAt;
+        volatile String error;
+
+        Job(Long electionId, boolean archive) {
+            this.electionId = electionId;
+            this.archive = archive;
+        }
+
+        boolean isFinished() {
+            return state.equals("DONE") || state.equals("FAILED");
+        }
+
+        void fail(String message) {
+            error = message;
+            state = "FAILED";
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("electionId", electionId);
+            map.put("state", state);
+            map.put("archive", archive);
+            map.put("chunks", chunks);
+            map.put("deletedVotes", deletedVotes);
+            if (archive) {
+                map.put("archivedVotes", archivedVotes);
+                map.put("archivedBytes", archivedBytes);
+            }
+            map.put("startedAt", startedAt);
+            map.put("finishedAt", finishedAt);
+            if (error != null) {
+                map.put("error", error);
+            }
+            return map;
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package com.ntrovote.service;
+
+import com.ntrovote.config.ElectionTimeZone;
+import com.ntrovote.config.WorkerThreads;
+import com.ntrovote.model.Election;
+import com.ntrovote.model.Nominee;
+import com.ntrovote.repository.ElectionRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+// Opens elections at startAt and finalizes them at endAt. Transitions wait in
+// a DelayQueue drained by one thread. The queue lives only in memory and is
+// refilled from the elections table at startup, so anything that fell due
+// while the app was down fires straight away, in time order. Every transition
+// re-reads its election when it fires and does nothing if the row has moved on
+// (opened or closed by hand, rescheduled, deleted), so stale or duplicate
+// entries are harmless, including across several instances.
+@Service
+public class ElectionScheduler {
+
+    private enum Action {
+        PREWARM, OPEN, CLOSE
+    }
+
+    @Autowired
+    private ElectionRepository electionRepository;
+
+    @Autowired
+    private ElectionService electionService;
+
+    @Autowired
+    private BallotCache ballotCache;
+
+    @Autowired
+    private ImageCache imageCache;
+
+    @Autowired
+    private EligibilityIndex eligibilityIndex;
+
+    @Autowired
+    private VoteTallyService voteTallyService;
+
+    @Autowired
+    private VotedUserIndex votedUserIndex;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ElectionTimeZone electionTimeZone;
+
+    @Autowired
+    private WorkerThreads workerThreads;
+
+    @Value("${election.scheduler.enabled:true}")
+    private boolean enabled;
+
+    // How long before startAt the caches and indexes are warmed; 0 disables
+    @Value("${election.scheduler.prewarm-lead-ms:300000}")
+    private long prewarmLeadMs;
+
+    @Value("${upload.dir:uploads}")
+    private String uploadDir;
+
+    private final DelayQueue<Transition> queue = new DelayQueue<>();
+
+    private Thread worker;
+
+    // Called by DataInitializer once the indexes are loaded
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        for (Election election : electionRepository.findByStatusIn(
+                List.of(Election.ElectionStatus.SCHEDULED, Election.ElectionStatus.ONGOING))) {
+            schedule(election);
+        }
+        worker = workerThreads.factory("election-scheduler").newThread(this::run);
+        worker.start();
+        System.out.println("Election scheduler started with " + queue.size() + " pending transition(s)");
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (worker != null) {
+            worker.interrupt();
+        }
+    }
+
+    // Queues the election's upcoming transitions; call after creating it or changing its status
+    public void schedule(Election election) {
+        if (!enabled) {
+            return;
+        }
+        Election.ElectionStatus status = election.getStatus();
+        LocalDateTime startAt = election.getStartAt();
+        if (status == Election.ElectionStatus.SCHEDULED && startAt != null) {
+            // Not worth it once the election is due to open anyway
+            if (prewarmLeadMs > 0 && startAt.isAfter(electionTimeZone.now())) {
+                queue.add(new Transition(election.getId(), Action.PREWARM, startAt,
+                        epochMillis(startAt) - prewarmLeadMs));
+            }
+            queue.add(new Transition(election.getId(), Action.OPEN, startAt, epochMillis(startAt)));
+        }
+        LocalDateTime endAt = election.getEndAt();
+        if (endAt != null && (status == Election.ElectionStatus.SCHEDULED || status == Election.ElectionStatus.ONGOING)) {
+            queue.add(new Transition(election.getId(), Action.CLOSE, endAt, epochMillis(endAt)));
+        }
+    }
+
+    public List<Map<String, Object>> getPending() {
+        List<Transition> pending = new ArrayList<>(queue);
+        pending.sort(Comparator.comparingLong(Transition::dueAtMillis));
+        List<Map<String, Object>> rows = new ArrayList<>(pending.size());
+        for (Transition transition : pending) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("electionId", transition.electionId());
+            row.put("action", transition.action());
+            row.put("for", transition.target());
+            row.put("dueInMs", Math.max(0, transition.dueAtMillis() - System.currentTimeMillis()));
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private void run() {
+        while (!Thread.currentThread().isInterrupted()) {
+            Transition transition;
+            try {
+                transition = queue.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            try {
+                fire(transition);
+            } catch (RuntimeException e) {
+                System.err.println("Election " + transition.electionId() + " " + transition.action()
+                        + " failed: " + e.getMessage());
+            }
+        }
+    }
+
+    private void fire(Transition transition) {
+        Long id = transition.electionId();
+        switch (transition.action()) {
+            case PREWARM -> {
+                Election election = electionRepository.findById(id).orElse(null);
+                if (election != null && election.getStatus() == Election.ElectionStatus.SCHEDULED
+                        && transition.target().equals(election.getStartAt())) {
+                    prewarm(id);
+                }
+            }
+            case OPEN -> {
+                if (electionService.openScheduledElection(id, transition.target())) {
+                    // Rebuild the payloads the first voters will ask for right away
+                    ballotCache.getActiveElections();
+                    ballotCache.getElection(id);
+                    System.out.println("Election " + id + " opened");
+                }
+            }
+            case CLOSE -> {
+                Election election = electionRepository.findById(id).orElse(null);
+                if (election != null && election.getStatus() == Election.ElectionStatus.ONGOING
+                        && transition.target().equals(election.getEndAt())) {
+                    electionService.finalizeElection(id);
+                    System.out.println("Election " + id + " closed and finalized");
+                }
+            }
+        }
+    }
+
+    // Everything the first wave of voters would otherwise load on demand
+    private void prewarm(Long id) {
+        long started = System.nanoTime();
+        List<Nominee> nominees = transactionTemplate.execute(tx -> new ArrayList<>(
+                electionRepository.findById(id).map(Election::getNominees).orElse(List.of())));
+
+        // The roll may have changed since startup, and the Bloom filter only
+        // forgets removed voters on a rebuild
+        eligibilityIndex.rebuild();
+        List<Long> nomineeIds = new ArrayList<>(nominees.size());
+        nominees.forEach(nominee -> nomineeIds.add(nominee.getId()));
+        voteTallyService.prepareElection(id, nomineeIds);
+        votedUserIndex.prepareElection(id);
+
+        // Serializes the ballot, which also warms the Jackson path the open will take
+        ballotCache.getElection(id);
+        int images = 0;
+        for (Nominee nominee : nominees) {
+            for (String url : new String[] { nominee.getThumbnailUrl(), nominee.getImageUrl() }) {
+                if (warmImage(url)) {
+                    images++;
+                }
+            }
+        }
+        System.out.println("Election " + id + " prewarmed (" + nominees.size() + " nominee(s), " + images
+                + " image(s)) in " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started) + " ms");
+    }
+
+    private boolean warmImage(String url) {
+        if (url == null || !url.startsWith("/images/")) {
+            return false;
+        }
+        String filename = url.substring("/images/".length());
+        Path file = Paths.get(uploadDir).resolve(filename);
+        try {
+            if (!Files.isRegularFile(file) || !imageCache.accepts(Files.size(file))) {
+                return false;
+            }
+            imageCache.put(filename, Files.readAllBytes(file));
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private long epochMillis(LocalDateTime time) {
+        return electionTimeZone.toInstant(time).toEpochMilli();
+    }
+
+    private record Transition(Long electionId, Action action, LocalDateTime target, long dueAtMillis)
+            implements Delayed {
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(dueAtMillis - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        // Ties keep the lifecycle order, so a past-due open runs before its close
+        @Override
+        public int compareTo(Delayed other) {
+            Transition that = (Transition) other;
+            int byTime = Long.compare(dueAtMillis, that.dueAtMillis);
+            return byTime != 0 ? byTime : action.compareTo(that.action);
+        }
+    }
+}
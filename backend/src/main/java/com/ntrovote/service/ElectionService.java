@@ -1,14 +1,16 @@
 package com.ntrovote.service;
 
+import com.ntrovote.config.ElectionTimeZone;
 import com.ntrovote.model.Election;
+import com.ntrovote.model.ElectionResult;
 import com.ntrovote.model.Nominee;
 import com.ntrovote.repository.ElectionRepository;
 import com.ntrovote.repository.NomineeRepository;
-import com.ntrovote.repository.VoteRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Service
@@ -21,17 +23,39 @@ public class ElectionService {
     private NomineeRepository nomineeRepository;
 
     @Autowired
-    private VoteRepository voteRepository;
+    private VoteTallyService voteTallyService;
+
+    @Autowired
+    private VotedUserIndex votedUserIndex;
+
+    @Autowired
+    private BallotCache ballotCache;
+
+    @Autowired
+    private ResultSnapshotService resultSnapshotService;
+
+    @Autowired
+    private ElectionTimeZone electionTimeZone;
 
     public Election createElection(Election election) {
-        election.setStatus(Election.ElectionStatus.ONGOING);
-        return electionRepository.save(election);
+        if (election.getStartAt() != null && election.getEndAt() != null
+                && !election.getEndAt().isAfter(election.getStartAt())) {
+            throw new RuntimeException("Election must end after it starts");
+        }
+        // ElectionScheduler opens it at startAt
+        boolean scheduled = election.getStartAt() != null && election.getStartAt().isAfter(electionTimeZone.now());
+        election.setStatus(scheduled ? Election.ElectionStatus.SCHEDULED : Election.ElectionStatus.ONGOING);
+        Election saved = electionRepository.save(election);
+        ballotCache.invalidate();
+        return saved;
     }
 
+    @Transactional(readOnly = true)
     public List<Election> getAllElections() {
         return electionRepository.findAll();
     }
 
+    @Transactional(readOnly = true)
     public List<Election> getActiveElections() {
         return electionRepository.findByStatus(Election.ElectionStatus.ONGOING);
     }
@@ -43,51 +67,67 @@ public class ElectionService {
     public Nominee addNominee(Long electionId, Nominee nominee) {
         Election election = getElection(electionId);
         nominee.setElection(election);
-        return nomineeRepository.save(nominee);
+        Nominee saved = nomineeRepository.save(nominee);
+        ballotCache.invalidate();
+        return saved;
     }
 
     public void deleteNominee(Long id) {
         nomineeRepository.deleteById(id);
-    }
-
-    @Transactional
-    public void resetElection(Long electionId) {
-        voteRepository.deleteByElectionId(electionId);
+        ballotCache.invalidate();
     }
 
     public void deleteElection(Long id) {
         electionRepository.deleteById(id);
+        resultSnapshotService.delete(id);
+        voteTallyService.resetElection(id);
+        votedUserIndex.resetElection(id);
+        ballotCache.invalidate();
     }
 
-    public void updateElectionStatus(Long id, Election.ElectionStatus status) {
+    public Election updateElectionStatus(Long id, Election.ElectionStatus status) {
         Election election = getElection(id);
         election.setStatus(status);
+        election = electionRepository.save(election);
+        // Reopened elections take votes again, so their snapshot no longer holds
+        if (status != Election.ElectionStatus.CLOSED) {
+            resultSnapshotService.delete(id);
+        }
+        ballotCache.invalidate();
+        return election;
+    }
+
+    // Opens a SCHEDULED election unless it was opened by hand or rescheduled
+    // since startAt was read. Returns whether it opened.
+    @Transactional
+    public boolean openScheduledElection(Long id, LocalDateTime startAt) {
+        Election election = electionRepository.findByIdForUpdate(id).orElse(null);
+        if (election == null || election.getStatus() != Election.ElectionStatus.SCHEDULED
+                || !startAt.equals(election.getStartAt())) {
+            return false;
+        }
+        election.setStatus(Election.ElectionStatus.ONGOING);
         electionRepository.save(election);
+        ballotCache.invalidateOnCommit();
+        return true;
     }
 
     @Transactional
     public Election finalizeElection(Long electionId) {
-        Election election = getElection(electionId);
+        // Held until commit: no vote can land between the count and the status change
+        Election election = electionRepository.findByIdForUpdate(electionId)
+                .orElseThrow(() -> new RuntimeException("Election not found"));
 
         if (election.getStatus() == Election.ElectionStatus.CLOSED) {
             throw new RuntimeException("Election already finalized");
         }
 
-        // Find the nominee with the most votes
-        Long winnerId = null;
-        long maxVotes = 0;
-
-        for (Nominee nominee : election.getNominees()) {
-            long count = voteRepository.countByNomineeId(nominee.getId());
-            if (count > maxVotes) {
-                maxVotes = count;
-                winnerId = nominee.getId();
-            }
-        }
+        ElectionResult result = resultSnapshotService.write(election);
 
         // Set winner and close election
-        election.setWinnerId(winnerId);
+        election.setWinnerId(result.getWinnerId());
         election.setStatus(Election.ElectionStatus.CLOSED);
+        ballotCache.invalidateOnCommit();
         return electionRepository.save(election);
     }
 }
@@ -0,0 +1,186 @@
+package com.ntrovote.service;
+
+import com.ntrovote.model.PhoneNumber;
+import com.ntrovote.repository.EligibleVoterRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// In-memory copy of the eligible voter roll used to answer "may this phone
+// request an OTP?" without a database round trip: the roll's phone keys in a
+// sorted long array fronted by a Bloom filter. Until the first rebuild has
+// loaded it, lookups go to the database instead.
+@Component
+public class EligibilityIndex {
+
+    private static final int BLOOM_HASHES = 4;
+
+    @Autowired
+    private EligibleVoterRepository eligibleVoterRepository;
+
+    private volatile Snapshot snapshot = Snapshot.build(new long[0], 0);
+
+    private volatile boolean loaded;
+
+    // One rebuild at a time, so there is a single set of changes to replay
+    private final Object rebuildLock = new Object();
+
+    // Latest add (true) or remove (false) per key made while a rebuild reads the
+    // roll; the read may or may not have seen them, so they are applied on top
+    private Map<Long, Boolean> changesDuringRebuild;
+
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            synchronized (this) {
+                changesDuringRebuild = new LinkedHashMap<>();
+            }
+            try {
+                List<Long> phoneKeys = eligibleVoterRepository.findAllPhoneKeys();
+                long[] keys = new long[phoneKeys.size()];
+                int count = 0;
+                for (Long key : phoneKeys) {
+                    keys[count++] = key;
+                }
+                synchronized (this) {
+                    snapshot = Snapshot.build(keys, count);
+                    changesDuringRebuild.forEach((key, added) -> {
+                        if (added) {
+                            insert(key);
+                        } else {
+                            delete(key);
+                        }
+                    });
+                    loaded = true;
+                }
+                System.out.println("Eligibility index loaded " + count + " voter(s)");
+            } finally {
+                synchronized (this) {
+                    changesDuringRebuild = null;
+                }
+            }
+        }
+    }
+
+    public boolean contains(PhoneNumber phone) {
+        long key = phone.key();
+        if (!loaded) {
+            return eligibleVoterRepository.existsByPhoneKey(key);
+        }
+        Snapshot current = snapshot;
+        return current.mightContain(key) && Arrays.binarySearch(current.keys, key) >= 0;
+    }
+
+    public int size() {
+        return snapshot.keys.length;
+    }
+
+    // Roll changes are rare admin operations, so copy-on-write keeps reads lock-free
+    public synchronized void add(PhoneNumber phone) {
+        record(phone.key(), true);
+        insert(phone.key());
+    }
+
+    // The Bloom filter can't forget a key; the sorted array stays authoritative
+    // and the filter is recomputed on the next rebuild
+    public synchronized void remove(PhoneNumber phone) {
+        record(phone.key(), false);
+        delete(phone.key());
+    }
+
+    private void record(long key, boolean added) {
+        if (changesDuringRebuild != null) {
+            changesDuringRebuild.put(key, added);
+        }
+    }
+
+    private void insert(long key) {
+        Snapshot current = snapshot;
+        int pos = Arrays.binarySearch(current.keys, key);
+        if (pos >= 0) {
+            return;
+        }
+        int insertAt = -pos - 1;
+        long[] keys = new long[current.keys.length + 1];
+        System.arraycopy(current.keys, 0, keys, 0, insertAt);
+        keys[insertAt] = key;
+        System.arraycopy(current.keys, insertAt, keys, insertAt + 1, current.keys.length - insertAt);
+        if (keys.length > current.bloomCapacity()) {
+            snapshot = Snapshot.build(keys, keys.length);
+        } else {
+            long[] bloom = current.bloom.clone();
+            Snapshot.setBits(bloom, key);
+            snapshot = new Snapshot(keys, bloom);
+        }
+    }
+
+    private void delete(long key) {
+        Snapshot current = snapshot;
+        int pos = Arrays.binarySearch(current.keys, key);
+        if (pos < 0) {
+            return;
+        }
+        long[] keys = new long[current.keys.length - 1];
+        System.arraycopy(current.keys, 0, keys, 0, pos);
+        System.arraycopy(current.keys, pos + 1, keys, pos, keys.length - pos);
+        snapshot = new Snapshot(keys, current.bloom);
+    }
+
+    private static final class Snapshot {
+        final long[] keys;
+        final long[] bloom;
+
+        Snapshot(long[] keys, long[] bloom) {
+            this.keys = keys;
+            this.bloom = bloom;
+        }
+
+        // ~10 bits per key with 4 hashes keeps false positives around 1%
+        static Snapshot build(long[] source, int count) {
+            long[] keys = Arrays.copyOf(source, count);
+            Arrays.sort(keys);
+            long[] bloom = new long[Math.max(1, (count * 10 + 63) / 64)];
+            for (long key : keys) {
+                setBits(bloom, key);
+            }
+            return new Snapshot(keys, bloom);
+        }
+
+        int bloomCapacity() {
+            return bloom.length * 64 / 10;
+        }
+
+        boolean mightContain(long key) {
+            long bits = (long) bloom.length * 64;
+            long h1 = mix(key);
+            long h2 = mix(h1);
+            for (int i = 0; i < BLOOM_HASHES; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bits);
+                if ((bloom[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        static void setBits(long[] bloom, long key) {
+            long bits = (long) bloom.length * 64;
+            long h1 = mix(key);
+            long h2 = mix(h1);
+            for (int i = 0; i < BLOOM_HASHES; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bits);
+                bloom[(int) (bit >>> 6)] |= 1L << bit;
+            }
+        }
+
+        // SplitMix64 finalizer
+        static long mix(long z) {
+            z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+            z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+            return z ^ (z >>> 31);
+        }
+    }
+}
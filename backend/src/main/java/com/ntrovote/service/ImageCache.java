@@ -0,0 +1,88 @@
+package com.ntrovote.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Byte-bounded LRU of small, content-hashed images. Hashed files never change,
+// so entries need no revalidation against the disk.
+@Component
+public class ImageCache {
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Map<String, byte[]> entries = new LinkedHashMap<>(64, 0.75f, true);
+
+    private final long maxBytes;
+
+    private final int maxEntryBytes;
+
+    private long totalBytes;
+
+    private long hits;
+
+    private long misses;
+
+    public ImageCache(@Value("${image.cache.max-bytes:67108864}") long maxBytes,
+            @Value("${image.cache.max-entry-bytes:262144}") int maxEntryBytes) {
+        this.maxBytes = maxBytes;
+        this.maxEntryBytes = maxEntryBytes;
+    }
+
+    public boolean accepts(long size) {
+        return size <= maxEntryBytes;
+    }
+
+    public byte[] get(String filename) {
+        lock.lock();
+        try {
+            byte[] body = entries.get(filename);
+            if (body == null) {
+                misses++;
+            } else {
+                hits++;
+            }
+            return body;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void put(String filename, byte[] body) {
+        if (!accepts(body.length)) {
+            return;
+        }
+        lock.lock();
+        try {
+            byte[] previous = entries.put(filename, body);
+            totalBytes += body.length - (previous == null ? 0 : previous.length);
+            // Evict least recently served until the budget fits again
+            Iterator<byte[]> eldest = entries.values().iterator();
+            while (totalBytes > maxBytes && eldest.hasNext()) {
+                totalBytes -= eldest.next().length;
+                eldest.remove();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        lock.lock();
+        try {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("entries", entries.size());
+            stats.put("bytes", totalBytes);
+            stats.put("maxBytes", maxBytes);
+            stats.put("hits", hits);
+            stats.put("misses", misses);
+            return stats;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,381 @@
+package com.ntrovote.service;
+
+import com.ntrovote.model.Nominee;
+import com.ntrovote.repository.NomineeRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.*;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Nominee photos. Uploads are stored under their SHA-256 so identical files are
+// kept once; a small worker pool then writes downscaled JPEG variants (ballot
+// size and thumbnail) and repoints the nominee at them. Formats ImageIO cannot
+// decode (HEIC, WebP) keep serving the original.
+@Service
+public class NomineeImageService {
+
+    private static final Set<String> KNOWN_EXTENSIONS = Set.of("jpg", "jpeg", "png", "gif", "bmp", "webp", "heic");
+
+    @Autowired
+    private NomineeRepository nomineeRepository;
+
+    @Autowired
+    private BallotCache ballotCache;
+
+    @Value("${upload.dir:uploads}")
+    private String uploadDir;
+
+    @Value("${image.variant.width:800}")
+    private int variantWidth;
+
+    @Value("${image.thumbnail.width:160}")
+    private int thumbnailWidth;
+
+    @Value("${image.jpeg.quality:0.82}")
+    private float jpegQuality;
+
+    @Value("${image.max-pixels:50000000}")
+    private long maxPixels;
+
+    @Value("${image.processing.threads:1}")
+    private int threads;
+
+    @Value("${image.processing.queue-capacity:100}")
+    private int queueCapacity;
+
+    private Path root;
+
+    private ThreadPoolExecutor workers;
+
+    public record StoredImage(String hash, String extension) {
+        public String filename() {
+            return hash + "." + extension;
+        }
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        root = Paths.get(uploadDir);
+        Files.createDirectories(root);
+        AtomicInteger threadCount = new AtomicInteger();
+        // Decoding a large photo takes tens of MB, so keep the pool small and bounded
+        workers = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "image-worker-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    public void stop() {
+        workers.shutdownNow();
+    }
+
+    // Hashes while copying, then keeps the file only if that content is new
+    public StoredImage store(MultipartFile upload) throws IOException {
+        Path temp = Files.createTempFile(root, "upload-", ".tmp");
+        try {
+            MessageDigest digest = sha256();
+            try (InputStream in = new DigestInputStream(upload.getInputStream(), digest)) {
+                Files.copy(in, temp, StandardCopyOption.REPLACE_EXISTING);
+            }
+            StoredImage stored = new StoredImage(HexFormat.of().formatHex(digest.digest()),
+                    extensionOf(upload.getOriginalFilename()));
+            Path target = root.resolve(stored.filename());
+            if (!Files.exists(target)) {
+                try {
+                    Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+                } catch (FileAlreadyExistsException e) {
+                    // Same content uploaded concurrently
+                }
+            }
+            return stored;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    public void processAsync(Long nomineeId, StoredImage image) {
+        try {
+            workers.execute(() -> process(nomineeId, image));
+        } catch (RejectedExecutionException e) {
+            // The original is already served; variants can be rebuilt via reprocessAll
+            System.err.println("Image queue full, skipping variants for nominee " + nomineeId);
+        }
+    }
+
+    // Queues every nominee that has no variants yet (e.g. uploads from before this pipeline)
+    public int reprocessAll() {
+        int queued = 0;
+        for (Nominee nominee : nomineeRepository.findAll()) {
+            if (nominee.getThumbnailUrl() != null || nominee.getImageUrl() == null) {
+                continue;
+            }
+            String filename = nominee.getImageUrl().substring(nominee.getImageUrl().lastIndexOf('/') + 1);
+            Long nomineeId = nominee.getId();
+            try {
+                workers.execute(() -> reprocessLegacy(nomineeId, filename));
+                queued++;
+            } catch (RejectedExecutionException e) {
+                break;
+            }
+        }
+        return queued;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("queued", workers.getQueue().size());
+        stats.put("active", workers.getActiveCount());
+        stats.put("completed", workers.getCompletedTaskCount());
+        return stats;
+    }
+
+    private void reprocessLegacy(Long nomineeId, String filename) {
+        Path source = root.resolve(filename).normalize();
+        if (!source.startsWith(root) || !Files.isRegularFile(source)) {
+            return;
+        }
+        try {
+            // Re-store under the content hash so old UUID names converge on the new scheme
+            MessageDigest digest = sha256();
+            try (InputStream in = new DigestInputStream(Files.newInputStream(source), digest)) {
+                in.transferTo(OutputStream.nullOutputStream());
+            }
+            StoredImage stored = new StoredImage(HexFormat.of().formatHex(digest.digest()), extensionOf(filename));
+            Path target = root.resolve(stored.filename());
+            if (!Files.exists(target)) {
+                Files.copy(source, target);
+            }
+            process(nomineeId, stored);
+        } catch (IOException e) {
+            System.err.println("Failed to reprocess image " + filename + ": " + e.getMessage());
+        }
+    }
+
+    private void process(Long nomineeId, StoredImage image) {
+        Path original = root.resolve(image.filename());
+        try {
+            String variant = image.hash() + "-" + variantWidth + ".jpg";
+            String thumbnail = image.hash() + "-" + thumbnailWidth + ".jpg";
+            if (!Files.exists(root.resolve(variant)) || !Files.exists(root.resolve(thumbnail))) {
+                // Variants carry no EXIF, so a photo stored sideways with an
+                // Orientation tag has to be turned upright before scaling
+                int orientation = exifOrientation(original);
+                BufferedImage decoded = decode(original, orientation);
+                if (decoded == null) {
+                    System.out.println("No decoder for " + image.filename() + ", serving original");
+                    return;
+                }
+                decoded = orient(decoded, orientation);
+                writeJpeg(scale(decoded, variantWidth), root.resolve(variant));
+                writeJpeg(scale(decoded, thumbnailWidth), root.resolve(thumbnail));
+            }
+            // Never point at a "variant" that is bigger than what was uploaded
+            String imageName = Files.size(root.resolve(variant)) < Files.size(original) ? variant : image.filename();
+            nomineeRepository.findById(nomineeId).ifPresent(nominee -> {
+                nominee.setImageUrl("/images/" + imageName);
+                nominee.setThumbnailUrl("/images/" + thumbnail);
+                nomineeRepository.save(nominee);
+                ballotCache.invalidate();
+            });
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Failed to process image " + image.filename() + ": " + e.getMessage());
+        }
+    }
+
+    // Subsamples while decoding so a 12 MP photo never has to be held at full size
+    private BufferedImage decode(Path file, int orientation) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(file.toFile())) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > maxPixels) {
+                    throw new IOException("Image is too large to process: " + width + "x" + height);
+                }
+                ImageReadParam param = reader.getDefaultReadParam();
+                // Keep at least twice the variant width so the final downscale stays
+                // sharp; orientations 5-8 turn the stored height into the width
+                int uprightWidth = orientation >= 5 ? height : width;
+                int step = Math.max(1, uprightWidth / (2 * variantWidth));
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // EXIF Orientation (1-8) from a JPEG's APP1 segment; 1 (as stored) for other
+    // formats and for files without a readable tag
+    static int exifOrientation(Path file) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readUnsignedShort() != 0xFFD8) {
+                return 1;
+            }
+            while (true) {
+                int marker = in.readUnsignedShort();
+                // Start of scan: the metadata segments are all behind us
+                if ((marker & 0xFF00) != 0xFF00 || marker == 0xFFDA) {
+                    return 1;
+                }
+                int length = in.readUnsignedShort() - 2;
+                if (length < 0) {
+                    return 1;
+                }
+                byte[] segment = new byte[length];
+                in.readFully(segment);
+                if (marker == 0xFFE1 && length > 6 && new String(segment, 0, 6, "ISO-8859-1").equals("Exif\0\0")) {
+                    return tiffOrientation(segment, 6);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            return 1;
+        }
+    }
+
+    // Scans IFD0 of the TIFF structure that follows the Exif header for tag 0x0112
+    private static int tiffOrientation(byte[] data, int start) {
+        boolean little = data[start] == 'I' && data[start + 1] == 'I';
+        int ifd = start + readInt(data, start + 4, little);
+        int entries = readShort(data, ifd, little);
+        for (int i = 0; i < entries; i++) {
+            int entry = ifd + 2 + i * 12;
+            if (readShort(data, entry, little) == 0x0112) {
+                int orientation = readShort(data, entry + 8, little);
+                return orientation >= 1 && orientation <= 8 ? orientation : 1;
+            }
+        }
+        return 1;
+    }
+
+    private static int readShort(byte[] data, int offset, boolean little) {
+        int a = data[offset] & 0xFF;
+        int b = data[offset + 1] & 0xFF;
+        return little ? (b << 8) | a : (a << 8) | b;
+    }
+
+    private static int readInt(byte[] data, int offset, boolean little) {
+        int high = readShort(data, offset + (little ? 2 : 0), little);
+        int low = readShort(data, offset + (little ? 0 : 2), little);
+        return (high << 16) | low;
+    }
+
+    // Redraws the image the way a viewer honouring the Orientation tag shows it
+    static BufferedImage orient(BufferedImage source, int orientation) {
+        if (orientation <= 1 || orientation > 8) {
+            return source;
+        }
+        int w = source.getWidth();
+        int h = source.getHeight();
+        boolean swap = orientation >= 5;
+        AffineTransform t = new AffineTransform();
+        switch (orientation) {
+            case 2 -> { t.scale(-1, 1); t.translate(-w, 0); }
+            case 3 -> { t.translate(w, h); t.rotate(Math.PI); }
+            case 4 -> { t.scale(1, -1); t.translate(0, -h); }
+            case 5 -> { t.rotate(-Math.PI / 2); t.scale(-1, 1); }
+            case 6 -> { t.translate(h, 0); t.rotate(Math.PI / 2); }
+            case 7 -> { t.scale(-1, 1); t.translate(-h, w); t.rotate(3 * Math.PI / 2); }
+            default -> { t.translate(0, w); t.rotate(3 * Math.PI / 2); }
+        }
+        BufferedImage upright = new BufferedImage(swap ? h : w, swap ? w : h, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = upright.createGraphics();
+        try {
+            g.drawImage(source, t, null);
+        } finally {
+            g.dispose();
+        }
+        return upright;
+    }
+
+    private static BufferedImage scale(BufferedImage source, int maxWidth) {
+        int width = Math.min(maxWidth, source.getWidth());
+        int height = Math.max(1, (int) Math.round((double) source.getHeight() * width / source.getWidth()));
+        BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = scaled.createGraphics();
+        try {
+            // JPEG has no alpha; flatten transparent PNGs onto white
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, width, height);
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+        return scaled;
+    }
+
+    private void writeJpeg(BufferedImage image, Path target) throws IOException {
+        Path temp = Files.createTempFile(root, "variant-", ".tmp");
+        try {
+            ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+            try (ImageOutputStream out = ImageIO.createImageOutputStream(temp.toFile())) {
+                writer.setOutput(out);
+                ImageWriteParam param = writer.getDefaultWriteParam();
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(jpegQuality);
+                param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+                writer.write(null, new IIOImage(image, null, null), param);
+            } finally {
+                writer.dispose();
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static String extensionOf(String filename) {
+        if (filename == null || filename.lastIndexOf('.') < 0) {
+            return "bin";
+        }
+        String extension = filename.substring(filename.lastIndexOf('.') + 1).toLowerCase(Locale.ROOT);
+        return KNOWN_EXTENSIONS.contains(extension) ? extension : "bin";
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.ntrovote.service;
+
+import com.ntrovote.model.Election;
+import com.ntrovote.model.ElectionResult;
+import com.ntrovote.model.Nominee;
+import com.ntrovote.model.NomineeResult;
+import com.ntrovote.repository.ElectionResultRepository;
+import com.ntrovote.repository.EligibleVoterRepository;
+import com.ntrovote.repository.VoteRepository;
+import com.ntrovote.repository.VoteRow;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.*;
+
+// Writes and serves the immutable results of finalized elections. Counts and
+// checksum come from one keyset pass over the votes, so they always describe
+// the same set of rows.
+@Service
+public class ResultSnapshotService {
+
+    private static final int PAGE_SIZE = 1000;
+
+    @Autowired
+    private ElectionResultRepository electionResultRepository;
+
+    @Autowired
+    private VoteRepository voteRepository;
+
+    @Autowired
+    private EligibleVoterRepository eligibleVoterRepository;
+
+    // Must run in finalizeElection's transaction, under the election row lock
+    public ElectionResult write(Election election) {
+        Count count = count(election.getId());
+
+        List<Nominee> ballot = new ArrayList<>(election.getNominees());
+        ballot.sort(Comparator.comparing(Nominee::getId));
+        List<NomineeResult> nominees = new ArrayList<>(ballot.size());
+        Long winnerId = null;
+        long maxVotes = 0;
+        for (Nominee nominee : ballot) {
+            long votes = count.byNominee.getOrDefault(nominee.getId(), 0L);
+            nominees.add(new NomineeResult(nominee.getId(), nominee.getName(), votes));
+            // Ties go to the lowest nominee id, as before
+            if (votes > maxVotes) {
+                maxVotes = votes;
+                winnerId = nominee.getId();
+            }
+        }
+
+        ElectionResult result = new ElectionResult();
+        result.setElectionId(election.getId());
+        result.setWinnerId(winnerId);
+        result.setTotalVotes(count.total);
+        result.setEligibleVoters(eligibleVoterRepository.count());
+        result.setVotedEligible(eligibleVoterRepository.countVoted(election.getId()));
+        result.setTurnoutPercent(result.getEligibleVoters() == 0 ? 0
+                : Math.round(result.getVotedEligible() * 10000.0 / result.getEligibleVoters()) / 100.0);
+        result.setVoteChecksum(count.checksum);
+        result.setFinalizedAt(LocalDateTime.now());
+        result.setNominees(nominees);
+
+        // A leftover row would make save() a no-op merge, since the entity is immutable
+        electionResultRepository.deleteById(election.getId());
+        electionResultRepository.flush();
+        return electionResultRepository.save(result);
+    }
+
+    public Optional<ElectionResult> find(Long electionId) {
+        return electionResultRepository.findById(electionId);
+    }
+
+    public void delete(Long electionId) {
+        electionResultRepository.deleteById(electionId);
+    }
+
+    // Recounts the votes table and compares it with the snapshot
+    public Map<String, Object> verify(Long electionId) {
+        ElectionResult result = find(electionId)
+                .orElseThrow(() -> new RuntimeException("Election results not found"));
+        Count count = count(electionId);
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("electionId", electionId);
+        report.put("matches", count.checksum.equals(result.getVoteChecksum()) && count.total == result.getTotalVotes());
+        report.put("snapshotVotes", result.getTotalVotes());
+        report.put("currentVotes", count.total);
+        report.put("snapshotChecksum", result.getVoteChecksum());
+        report.put("currentChecksum", count.checksum);
+        return report;
+    }
+
+    private Count count(Long electionId) {
+        MessageDigest digest = sha256();
+        ByteBuffer buffer = ByteBuffer.allocate(3 * Long.BYTES);
+        Count count = new Count();
+        long afterId = 0;
+        while (true) {
+            List<VoteRow> page = voteRepository.findRowsByElectionId(electionId, afterId, PageRequest.of(0, PAGE_SIZE));
+            for (VoteRow row : page) {
+                count.total++;
+                count.byNominee.merge(row.nomineeId(), 1L, Long::sum);
+                buffer.clear();
+                buffer.putLong(row.id()).putLong(row.userId()).putLong(row.nomineeId());
+                digest.update(buffer.array());
+            }
+            if (page.size() < PAGE_SIZE) {
+                count.checksum = HexFormat.of().formatHex(digest.digest());
+                return count;
+            }
+            afterId = page.get(page.size() - 1).id();
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class Count {
+        long total;
+        final Map<Long, Long> byNominee = new HashMap<>();
+        String checksum;
+    }
+}
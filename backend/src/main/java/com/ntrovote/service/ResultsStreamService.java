@@ -0,0 +1,321 @@
+package com.ntrovote.service;
+
+import com.ntrovote.config.WorkerThreads;
+import com.ntrovote.repository.ElectionRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Live results over SSE. Once per tick the results of each watched election
+// are computed a single time and offered to every subscriber. Each subscriber
+// has a one-slot mailbox: a newer snapshot replaces an unsent one, so a slow
+// client skips intermediate ticks instead of buffering them. A client that
+// stops reading blocks its sender thread inside the write, so it holds at most
+// one thread and is dropped once a send has been stuck for send-timeout-ms.
+// The write itself only gives up at the connector's timeout, so until then the
+// pool runs one extra thread in its place.
+@Service
+public class ResultsStreamService {
+
+    private static final Logger log = LoggerFactory.getLogger(ResultsStreamService.class);
+
+    @Autowired
+    private VoteService voteService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private WorkerThreads workerThreads;
+
+    @Autowired
+    private ElectionRepository electionRepository;
+
+    @Value("${results.stream.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${results.stream.heartbeat-ms:15000}")
+    private long heartbeatMs;
+
+    @Value("${results.stream.send-threads:64}")
+    private int sendThreads;
+
+    @Value("${results.stream.send-timeout-ms:5000}")
+    private long sendTimeoutMs;
+
+    private TransactionTemplate readOnlyTransaction;
+
+    private ExecutorService sender;
+
+    private final Map<Long, Channel> channels = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void start() {
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        ThreadFactory factory = workerThreads.factory("results-stream");
+        // At most one drain task per subscriber, so virtual threads need no pool bound.
+        // Platform threads are started on demand up to send-threads and retire when
+        // idle, so a few stalled clients cannot hold up everyone else's sends
+        if (workerThreads.isVirtual()) {
+            sender = Executors.newCachedThreadPool(factory);
+        } else {
+            ThreadPoolExecutor pool = new ThreadPoolExecutor(sendThreads, sendThreads, 60, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(), factory);
+            pool.allowCoreThreadTimeOut(true);
+            sender = pool;
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        channels.values().forEach(channel -> channel.subscribers.forEach(this::close));
+        sender.shutdown();
+    }
+
+    public SseEmitter subscribe(Long electionId) {
+        Snapshot initial = compute(electionId);
+        Subscriber subscriber = new Subscriber(newEmitter());
+        // Added inside compute() so the ticker cannot drop the channel in between
+        Channel channel = channels.compute(electionId, (id, existing) -> {
+            Channel target = existing;
+            if (target == null) {
+                target = new Channel();
+                target.lastCounts = initial.counts();
+                target.lastOfferAt = System.currentTimeMillis();
+            }
+            target.subscribers.add(subscriber);
+            return target;
+        });
+        Runnable remove = () -> channel.subscribers.remove(subscriber);
+        subscriber.emitter.onCompletion(remove);
+        subscriber.emitter.onTimeout(remove);
+        subscriber.emitter.onError(error -> remove.run());
+        offer(subscriber, initial);
+        return subscriber.emitter;
+    }
+
+    SseEmitter newEmitter() {
+        return new SseEmitter(timeoutMs);
+    }
+
+    public int getSubscriberCount() {
+        return channels.values().stream().mapToInt(channel -> channel.subscribers.size()).sum();
+    }
+
+    @Scheduled(fixedDelayString = "${results.stream.tick-ms:250}")
+    public void tick() {
+        long now = System.currentTimeMillis();
+        for (Long electionId : channels.keySet()) {
+            Channel channel = channels.computeIfPresent(electionId,
+                    (id, existing) -> existing.subscribers.isEmpty() ? null : existing);
+            if (channel == null) {
+                continue;
+            }
+            channel.subscribers.forEach(sub -> dropIfStalled(channel, sub, now));
+            Snapshot snapshot;
+            try {
+                snapshot = compute(electionId);
+            } catch (RuntimeException e) {
+                endIfDeleted(electionId, channel, e);
+                continue;
+            }
+            if (snapshot.counts().equals(channel.lastCounts) && now - channel.lastOfferAt < heartbeatMs) {
+                continue;
+            }
+            channel.lastCounts = snapshot.counts();
+            channel.lastOfferAt = now;
+            channel.subscribers.forEach(sub -> offer(sub, snapshot));
+        }
+    }
+
+    // Only a deleted election ends its streams; anything else (a database hiccup,
+    // a failover) skips this tick and the next one tries again
+    private void endIfDeleted(Long electionId, Channel channel, RuntimeException failure) {
+        boolean exists;
+        try {
+            exists = electionRepository.existsById(electionId);
+        } catch (RuntimeException e) {
+            exists = true;
+        }
+        if (exists) {
+            log.info("Skipping results tick for election {}: {}", electionId, failure.getMessage());
+            return;
+        }
+        channels.remove(electionId, channel);
+        channel.subscribers.forEach(this::close);
+    }
+
+    // The emitter can't be completed from here: that waits for the stuck write
+    private void dropIfStalled(Channel channel, Subscriber subscriber, long now) {
+        synchronized (subscriber) {
+            long startedAt = subscriber.sendStartedAt;
+            if (startedAt == 0 || now - startedAt <= sendTimeoutMs || !channel.subscribers.remove(subscriber)) {
+                return;
+            }
+            log.info("Dropping results stream subscriber: send stuck for {} ms", now - startedAt);
+            // Its thread stays in the write, so stand in another one for everyone else's sends
+            subscriber.holdsExtraThread = true;
+            resizeSender(1);
+        }
+        close(subscriber);
+    }
+
+    private void sendFinished(Subscriber subscriber) {
+        synchronized (subscriber) {
+            subscriber.sendStartedAt = 0;
+            if (subscriber.holdsExtraThread) {
+                subscriber.holdsExtraThread = false;
+                resizeSender(-1);
+            }
+        }
+    }
+
+    // Virtual threads are unbounded already
+    private synchronized void resizeSender(int delta) {
+        if (!(sender instanceof ThreadPoolExecutor pool)) {
+            return;
+        }
+        int size = pool.getCorePoolSize() + delta;
+        if (delta > 0) {
+            pool.setMaximumPoolSize(size);
+            pool.setCorePoolSize(size);
+        } else {
+            pool.setCorePoolSize(size);
+            pool.setMaximumPoolSize(size);
+        }
+    }
+
+    // Completed by the sender once any in-flight write has returned
+    private void close(Subscriber subscriber) {
+        subscriber.closed = true;
+        subscriber.pending.set(null);
+        schedule(subscriber);
+    }
+
+    private Snapshot compute(Long electionId) {
+        // Transaction so the election's nominees can load off the request thread
+        List<Map<String, Object>> results = readOnlyTransaction.execute(tx -> voteService.getElectionResults(electionId));
+        Map<Long, Long> counts = new HashMap<>();
+        for (Map<String, Object> row : results) {
+            counts.put((Long) row.get("nomineeId"), (Long) row.get("count"));
+        }
+        return new Snapshot(results, counts);
+    }
+
+    private void offer(Subscriber subscriber, Snapshot snapshot) {
+        if (subscriber.closed) {
+            return;
+        }
+        subscriber.pending.set(snapshot);
+        schedule(subscriber);
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.sending.compareAndSet(false, true)) {
+            try {
+                sender.execute(() -> drain(subscriber));
+            } catch (RejectedExecutionException e) {
+                // Shutting down
+                subscriber.sending.set(false);
+            }
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            Snapshot snapshot;
+            while (!subscriber.closed && (snapshot = subscriber.pending.getAndSet(null)) != null) {
+                subscriber.sendStartedAt = System.currentTimeMillis();
+                send(subscriber, snapshot);
+                sendFinished(subscriber);
+            }
+            if (subscriber.closed) {
+                subscriber.emitter.complete();
+                return;
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Client went away; completion callbacks unregister it
+            subscriber.closed = true;
+            subscriber.pending.set(null);
+            subscriber.emitter.completeWithError(e);
+            return;
+        } finally {
+            sendFinished(subscriber);
+            subscriber.sending.set(false);
+        }
+        // An offer or a close may have landed after the last check
+        if (subscriber.closed || subscriber.pending.get() != null) {
+            schedule(subscriber);
+        }
+    }
+
+    // Full snapshot first and whenever the nominee set changes, otherwise only changed counts
+    private void send(Subscriber subscriber, Snapshot snapshot) throws IOException {
+        Map<Long, Long> sent = subscriber.sent;
+        if (sent == null || !sent.keySet().equals(snapshot.counts().keySet())) {
+            subscriber.emitter.send(SseEmitter.event().name("snapshot").data(snapshot.results()));
+        } else {
+            List<Map<String, Object>> changed = new ArrayList<>();
+            snapshot.counts().forEach((nomineeId, count) -> {
+                if (!count.equals(sent.get(nomineeId))) {
+                    changed.add(Map.of("nomineeId", nomineeId, "count", count));
+                }
+            });
+            if (changed.isEmpty()) {
+                subscriber.emitter.send(SseEmitter.event().comment("heartbeat"));
+            } else {
+                subscriber.emitter.send(SseEmitter.event().name("delta").data(changed));
+            }
+        }
+        subscriber.sent = snapshot.counts();
+    }
+
+    private record Snapshot(List<Map<String, Object>> results, Map<Long, Long> counts) {
+    }
+
+    private static final class Channel {
+        final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+        volatile Map<Long, Long> lastCounts = Map.of();
+        volatile long lastOfferAt;
+    }
+
+    private static final class Subscriber {
+        final SseEmitter emitter;
+        final AtomicReference<Snapshot> pending = new AtomicReference<>();
+        final AtomicBoolean sending = new AtomicBoolean();
+        // When the send in flight started, 0 when idle
+        volatile long sendStartedAt;
+        // Dropped while stuck in a send; the pool has grown by one until it returns
+        boolean holdsExtraThread;
+        volatile boolean closed;
+        // Only touched by the thread holding the sending flag
+        Map<Long, Long> sent;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+    }
+}
@@ -0,0 +1,289 @@
+package com.ntrovote.service;
+
+import com.ntrovote.config.ElectionTimeZone;
+import com.ntrovote.model.Election;
+import com.ntrovote.model.PhoneNumber;
+import com.ntrovote.model.User;
+import com.ntrovote.repository.ElectionRepository;
+import com.ntrovote.repository.NomineeRepository;
+import com.ntrovote.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+
+// Group-commit path for peak hours (vote.ingest.mode=batched). Request threads
+// validate and enqueue; a single writer drains the queue into multi-row inserts,
+// one commit per batch, and only then completes each caller's future.
+@Service
+public class VoteIngestPipeline {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ElectionRepository electionRepository;
+
+    @Autowired
+    private NomineeRepository nomineeRepository;
+
+    @Autowired
+    private VotedUserIndex votedUserIndex;
+
+    @Autowired
+    private VoteTallyService voteTallyService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ElectionTimeZone electionTimeZone;
+
+    @Value("${vote.ingest.mode:direct}")
+    private String mode;
+
+    @Value("${vote.ingest.batch-size:500}")
+    private int batchSize;
+
+    @Value("${vote.ingest.max-wait-ms:5}")
+    private long maxWaitMs;
+
+    @Value("${vote.ingest.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${vote.ingest.ack-timeout-ms:5000}")
+    private long ackTimeoutMs;
+
+    private static final String INSERT_SQL =
+            "INSERT INTO votes (user_id, election_id, nominee_id, voted_at) VALUES (?, ?, ?, ?)";
+
+    private BlockingQueue<PendingVote> queue;
+
+    private Thread writer;
+
+    private volatile boolean running;
+
+    public boolean isEnabled() {
+        return "batched".equals(mode);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!isEnabled()) {
+            return;
+        }
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        running = true;
+        writer = new Thread(this::writeLoop, "vote-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (writer != null) {
+            writer.interrupt();
+        }
+    }
+
+    // Same checks as VoteService.castVote, then blocks until the vote's batch commits
+    public void castVote(String userPhone, Long electionId, Long nomineeId) {
+        if (!voteTallyService.isReady()) {
+            throw new RuntimeException("Voting is starting up, please try again shortly");
+        }
+        User user = userRepository.findByPhoneKey(PhoneNumber.parse(userPhone).key())
+                .orElseThrow(() -> new RuntimeException("User not found"));
+
+        if (votedUserIndex.hasVoted(electionId, user.getId())) {
+            throw new RuntimeException("Already voted in this election");
+        }
+
+        Election election = electionRepository.findById(electionId)
+                .orElseThrow(() -> new RuntimeException("Election not found"));
+
+        if (!election.isOpenAt(Instant.now(), electionTimeZone.zone())) {
+            throw new RuntimeException("Election is closed");
+        }
+
+        if (!nomineeRepository.existsById(nomineeId)) {
+            throw new RuntimeException("Nominee not found");
+        }
+
+        PendingVote vote = new PendingVote(user.getId(), electionId, nomineeId, new CompletableFuture<>());
+        if (!queue.offer(vote)) {
+            throw new RuntimeException("Voting is busy, please try again");
+        }
+        try {
+            vote.done().get(ackTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException
+                    ? (RuntimeException) e.getCause()
+                    : new RuntimeException("Failed to record vote");
+        } catch (TimeoutException e) {
+            // The batch may still commit; the unique constraint prevents a double vote on retry
+            throw new RuntimeException("Vote is still being recorded, please check again shortly");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Failed to record vote");
+        }
+    }
+
+    public int getQueueDepth() {
+        return queue == null ? 0 : queue.size();
+    }
+
+    private void writeLoop() {
+        List<PendingVote> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                PendingVote first = queue.take();
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+                while (batch.size() < batchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    PendingVote next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                flush(batch);
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                batch.forEach(vote -> vote.done().completeExceptionally(e));
+                System.err.println("Vote batch failed: " + e.getMessage());
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<PendingVote> batch) {
+        // A user can only appear once per election within a batch
+        Set<String> seen = new HashSet<>();
+        List<PendingVote> unique = new ArrayList<>(batch.size());
+        for (PendingVote vote : batch) {
+            if (seen.add(vote.userId() + ":" + vote.electionId())) {
+                unique.add(vote);
+            } else {
+                vote.done().completeExceptionally(new RuntimeException("Already voted in this election"));
+            }
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<PendingVote> open = new ArrayList<>(unique.size());
+        try {
+            // Counted inside the lock so a tally rebuild can't miss or repeat the batch
+            voteTallyService.whileCommitting(() -> {
+                try {
+                    transactionTemplate.executeWithoutResult(tx -> {
+                        open.addAll(withoutClosedElections(unique));
+                        jdbcTemplate.batchUpdate(INSERT_SQL, toArgs(open, now));
+                    });
+                } catch (TransactionException e) {
+                    // The commit may have gone through; keep the rows that made it
+                    // and retry the rest one by one below
+                    open.removeIf(vote -> !isRecorded(vote));
+                }
+                open.forEach(this::acknowledge);
+            });
+        } catch (DataAccessException e) {
+            // Usually a duplicate that slipped past validation; found row by row below
+        }
+        for (PendingVote vote : unique) {
+            if (!vote.done().isDone()) {
+                insertOne(vote, now);
+            }
+        }
+    }
+
+    private void insertOne(PendingVote vote, Timestamp now) {
+        try {
+            voteTallyService.whileCommitting(() -> {
+                try {
+                    transactionTemplate.executeWithoutResult(tx -> {
+                        if (!withoutClosedElections(List.of(vote)).isEmpty()) {
+                            jdbcTemplate.update(INSERT_SQL, vote.userId(), vote.electionId(), vote.nomineeId(), now);
+                        }
+                    });
+                } catch (TransactionException e) {
+                    if (!isRecorded(vote)) {
+                        vote.done().completeExceptionally(new RuntimeException("Failed to record vote"));
+                    }
+                }
+                if (!vote.done().isDone()) {
+                    acknowledge(vote);
+                }
+            });
+        } catch (DataIntegrityViolationException duplicate) {
+            vote.done().completeExceptionally(new RuntimeException("Already voted in this election"));
+        } catch (DataAccessException failure) {
+            vote.done().completeExceptionally(new RuntimeException("Failed to record vote"));
+        }
+    }
+
+    // After a failed commit, whether the vote's row is actually there
+    private boolean isRecorded(PendingVote vote) {
+        Integer rows = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM votes WHERE user_id = ? AND election_id = ? AND nominee_id = ?",
+                Integer.class, vote.userId(), vote.electionId(), vote.nomineeId());
+        return rows != null && rows > 0;
+    }
+
+    // Takes the shared election locks for the batch (see ElectionRepository) and
+    // fails votes for elections finalized since castVote checked them
+    private List<PendingVote> withoutClosedElections(List<PendingVote> votes) {
+        Instant now = Instant.now();
+        Set<Long> ongoing = new HashSet<>();
+        Set<Long> electionIds = new HashSet<>();
+        votes.forEach(vote -> electionIds.add(vote.electionId()));
+        for (Election election : electionRepository.findAllByIdForVote(electionIds)) {
+            if (election.isOpenAt(now, electionTimeZone.zone())) {
+                ongoing.add(election.getId());
+            }
+        }
+        List<PendingVote> open = new ArrayList<>(votes.size());
+        for (PendingVote vote : votes) {
+            if (ongoing.contains(vote.electionId())) {
+                open.add(vote);
+            } else {
+                vote.done().completeExceptionally(new RuntimeException("Election is closed"));
+            }
+        }
+        return open;
+    }
+
+    private void acknowledge(PendingVote vote) {
+        voteTallyService.recordVote(vote.electionId(), vote.nomineeId());
+        votedUserIndex.markVoted(vote.electionId(), vote.userId());
+        vote.done().complete(null);
+    }
+
+    private static List<Object[]> toArgs(List<PendingVote> votes, Timestamp votedAt) {
+        List<Object[]> args = new ArrayList<>(votes.size());
+        for (PendingVote vote : votes) {
+            args.add(new Object[] { vote.userId(), vote.electionId(), vote.nomineeId(), votedAt });
+        }
+        return args;
+    }
+
+    private record PendingVote(Long userId, Long electionId, Long nomineeId, CompletableFuture<Void> done) {
+    }
+}
@@ -1,7 +1,10 @@
 package com.ntrovote.service;
 
+import com.ntrovote.config.ElectionTimeZone;
 import com.ntrovote.model.Election;
+import com.ntrovote.model.ElectionResult;
 import com.ntrovote.model.Nominee;
+import com.ntrovote.model.PhoneNumber;
 import com.ntrovote.model.User;
 import com.ntrovote.model.Vote;
 import com.ntrovote.repository.ElectionRepository;
@@ -9,9 +12,13 @@ import com.ntrovote.repository.NomineeRepository;
 import com.ntrovote.repository.UserRepository;
 import com.ntrovote.repository.VoteRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+
 @Service
 public class VoteService {
 
@@ -27,19 +34,39 @@ public class VoteService {
     @Autowired
     private NomineeRepository nomineeRepository;
 
+    @Autowired
+    private VoteTallyService voteTallyService;
+
+    @Autowired
+    private VotedUserIndex votedUserIndex;
+
+    @Autowired
+    private ResultSnapshotService resultSnapshotService;
+
+    @Autowired
+    private ElectionTimeZone electionTimeZone;
+
+    @Value("${vote.tally.enabled:true}")
+    private boolean tallyEnabled;
+
     @Transactional
     public Vote castVote(String userPhone, Long electionId, Long nomineeId) {
-        User user = userRepository.findByPhone(userPhone)
+        // Startup rebuilds the tally and indexes after Tomcat is already accepting requests
+        if (!voteTallyService.isReady()) {
+            throw new RuntimeException("Voting is starting up, please try again shortly");
+        }
+        User user = userRepository.findByPhoneKey(PhoneNumber.parse(userPhone).key())
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-        if (voteRepository.existsByUserIdAndElectionId(user.getId(), electionId)) {
+        if (votedUserIndex.hasVoted(electionId, user.getId())) {
             throw new RuntimeException("Already voted in this election");
         }
 
-        Election election = electionRepository.findById(electionId)
+        // Shared row lock until commit, so finalizeElection cannot count around this vote
+        Election election = electionRepository.findByIdForVote(electionId)
                 .orElseThrow(() -> new RuntimeException("Election not found"));
 
-        if (election.getStatus() != Election.ElectionStatus.ONGOING) {
+        if (!election.isOpenAt(Instant.now(), electionTimeZone.zone())) {
             throw new RuntimeException("Election is closed");
         }
 
@@ -51,25 +78,53 @@ public class VoteService {
         vote.setElection(election);
         vote.setNominee(nominee);
 
-        return voteRepository.save(vote);
+        Vote saved;
+        try {
+            // Flush now so a concurrent duplicate surfaces here, not at commit
+            saved = voteRepository.saveAndFlush(vote);
+        } catch (DataIntegrityViolationException e) {
+            throw new RuntimeException("Already voted in this election");
+        }
+        voteTallyService.recordVoteOnCommit(electionId, nomineeId);
+        votedUserIndex.markVotedOnCommit(electionId, user.getId());
+        return saved;
     }
 
+    @Transactional(readOnly = true)
     public long getVoteCount(Long nomineeId) {
         return voteRepository.countByNomineeId(nomineeId);
     }
 
+    @Transactional(readOnly = true)
     public java.util.List<java.util.Map<String, Object>> getElectionResults(Long electionId) {
+        // Finalized elections are served from their snapshot without touching votes
+        java.util.Optional<ElectionResult> snapshot = resultSnapshotService.find(electionId);
+        if (snapshot.isPresent()) {
+            return snapshot.get().getNominees().stream()
+                    .map(row -> toResult(row.getNomineeId(), row.getName(), row.getVoteCount()))
+                    .collect(java.util.stream.Collectors.toList());
+        }
+
         Election election = electionRepository.findById(electionId)
                 .orElseThrow(() -> new RuntimeException("Election not found"));
 
+        if (!tallyEnabled) {
+            return voteRepository.countVotesByNominee(electionId).stream()
+                    .map(row -> toResult(row.getNomineeId(), row.getName(), row.getVoteCount()))
+                    .collect(java.util.stream.Collectors.toList());
+        }
+
         return election.getNominees().stream()
-                .map(nominee -> {
-                    java.util.Map<String, Object> result = new java.util.HashMap<>();
-                    result.put("nomineeId", nominee.getId());
-                    result.put("name", nominee.getName());
-                    result.put("count", voteRepository.countByNomineeId(nominee.getId()));
-                    return result;
-                })
+                .map(nominee -> toResult(nominee.getId(), nominee.getName(),
+                        voteTallyService.getCount(electionId, nominee.getId())))
                 .collect(java.util.stream.Collectors.toList());
     }
+
+    private java.util.Map<String, Object> toResult(Long nomineeId, String name, long count) {
+        java.util.Map<String, Object> result = new java.util.HashMap<>();
+        result.put("nomineeId", nomineeId);
+        result.put("name", name);
+        result.put("count", count);
+        return result;
+    }
 }
@@ -0,0 +1,205 @@
+package com.ntrovote.service;
+
+import com.ntrovote.repository.NomineeVoteCount;
+import com.ntrovote.repository.VoteRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Live per-election/per-nominee vote counts, rebuilt from the votes table at
+// startup and kept current by castVote. LongAdder keeps concurrent voters from
+// contending on a single counter.
+//
+// A rebuild must not lose or double-count a vote that commits while it reads.
+// Vote writers hold the read side of countingLock from just before commit until
+// the vote is counted; a rebuild holds the write side across its query and the
+// swap, so every vote is either in the recount or counted into the new map.
+@Service
+public class VoteTallyService {
+
+    private static final Logger log = LoggerFactory.getLogger(VoteTallyService.class);
+
+    @Autowired
+    private VoteRepository voteRepository;
+
+    // electionId -> (nomineeId -> count); replaced whole by rebuild()
+    private volatile Map<Long, Map<Long, LongAdder>> tallies = new ConcurrentHashMap<>();
+
+    private final ReadWriteLock countingLock = new ReentrantReadWriteLock();
+
+    // Off until startup has rebuilt the tally and indexes; votes are refused until then
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void markReady() {
+        ready = true;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void rebuild() {
+        countingLock.writeLock().lock();
+        try {
+            tallies = recountAll();
+        } finally {
+            countingLock.writeLock().unlock();
+        }
+        log.info("Vote tally rebuilt for {} election(s)", tallies.size());
+    }
+
+    public void rebuildElection(Long electionId) {
+        countingLock.writeLock().lock();
+        try {
+            tallies.put(electionId, recount(electionId));
+        } finally {
+            countingLock.writeLock().unlock();
+        }
+    }
+
+    // For writers that count their votes themselves once the transaction commits
+    public void whileCommitting(Runnable work) {
+        countingLock.readLock().lock();
+        try {
+            work.run();
+        } finally {
+            countingLock.readLock().unlock();
+        }
+    }
+
+    private Map<Long, Map<Long, LongAdder>> recountAll() {
+        Map<Long, Map<Long, LongAdder>> rebuilt = new ConcurrentHashMap<>();
+        for (Object[] row : voteRepository.countGroupedByElectionAndNominee()) {
+            Long electionId = (Long) row[0];
+            Long nomineeId = (Long) row[1];
+            LongAdder adder = new LongAdder();
+            adder.add((Long) row[2]);
+            rebuilt.computeIfAbsent(electionId, id -> new ConcurrentHashMap<>()).put(nomineeId, adder);
+        }
+        return rebuilt;
+    }
+
+    // Creates the counters ahead of opening, so the first voters don't race to allocate them
+    public void prepareElection(Long electionId, Collection<Long> nomineeIds) {
+        Map<Long, LongAdder> election = tallies.computeIfAbsent(electionId, id -> new ConcurrentHashMap<>());
+        nomineeIds.forEach(nomineeId -> election.computeIfAbsent(nomineeId, id -> new LongAdder()));
+    }
+
+    // Counts the vote only once the surrounding transaction has committed
+    public void recordVoteOnCommit(Long electionId, Long nomineeId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            recordVote(electionId, nomineeId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private boolean locked;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                countingLock.readLock().lock();
+                locked = true;
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (!locked) {
+                    return;
+                }
+                try {
+                    if (status == STATUS_COMMITTED) {
+                        recordVote(electionId, nomineeId);
+                    }
+                } finally {
+                    countingLock.readLock().unlock();
+                }
+            }
+        });
+    }
+
+    public void recordVote(Long electionId, Long nomineeId) {
+        tallies.computeIfAbsent(electionId, id -> new ConcurrentHashMap<>())
+                .computeIfAbsent(nomineeId, id -> new LongAdder())
+                .increment();
+    }
+
+    public long getCount(Long electionId, Long nomineeId) {
+        Map<Long, LongAdder> election = tallies.get(electionId);
+        if (election == null) {
+            return 0;
+        }
+        LongAdder adder = election.get(nomineeId);
+        return adder == null ? 0 : adder.sum();
+    }
+
+    public Map<Long, Long> getCounts(Long electionId) {
+        Map<Long, Long> counts = new HashMap<>();
+        Map<Long, LongAdder> election = tallies.get(electionId);
+        if (election != null) {
+            election.forEach((nomineeId, adder) -> counts.put(nomineeId, adder.sum()));
+        }
+        return counts;
+    }
+
+    public void resetElection(Long electionId) {
+        tallies.remove(electionId);
+    }
+
+    // Compares the live tally against a fresh recount from the votes table. Both
+    // are read under the write lock, so a vote committing in between cannot show
+    // up on one side only
+    public Map<String, Object> checkConsistency(Long electionId) {
+        Map<Long, Long> live;
+        Map<Long, Long> database = new HashMap<>();
+        countingLock.writeLock().lock();
+        try {
+            live = getCounts(electionId);
+            recount(electionId).forEach((nomineeId, adder) -> database.put(nomineeId, adder.sum()));
+        } finally {
+            countingLock.writeLock().unlock();
+        }
+
+        Set<Long> nomineeIds = new TreeSet<>(live.keySet());
+        nomineeIds.addAll(database.keySet());
+
+        List<Map<String, Object>> mismatches = new ArrayList<>();
+        for (Long nomineeId : nomineeIds) {
+            long tallyCount = live.getOrDefault(nomineeId, 0L);
+            long dbCount = database.getOrDefault(nomineeId, 0L);
+            if (tallyCount != dbCount) {
+                mismatches.add(Map.of(
+                        "nomineeId", nomineeId,
+                        "tally", tallyCount,
+                        "database", dbCount));
+            }
+        }
+
+        return Map.of(
+                "electionId", electionId,
+                "consistent", mismatches.isEmpty(),
+                "tallyTotal", live.values().stream().mapToLong(Long::longValue).sum(),
+                "databaseTotal", database.values().stream().mapToLong(Long::longValue).sum(),
+                "mismatches", mismatches);
+    }
+
+    private Map<Long, LongAdder> recount(Long electionId) {
+        Map<Long, LongAdder> counts = new ConcurrentHashMap<>();
+        for (NomineeVoteCount row : voteRepository.countVotesByNominee(electionId)) {
+            LongAdder adder = new LongAdder();
+            adder.add(row.getVoteCount());
+            counts.put(row.getNomineeId(), adder);
+        }
+        return counts;
+    }
+}
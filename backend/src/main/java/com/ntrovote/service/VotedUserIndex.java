@@ -0,0 +1,114 @@
+package com.ntrovote.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Which users have already voted in each election, so repeat attempts are
+// rejected in memory instead of by an exists query. The (user_id, election_id)
+// unique constraint remains the final guard against races and other instances.
+@Service
+public class VotedUserIndex {
+
+    private static final int LOAD_PAGE_SIZE = 10000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final Map<Long, VoterBitmap> elections = new ConcurrentHashMap<>();
+
+    public void rebuild() {
+        elections.clear();
+        long[] cursor = { 0 };
+        long loaded = 0;
+        int rows;
+        do {
+            rows = jdbcTemplate.query(
+                    "SELECT id, election_id, user_id FROM votes WHERE id > ? ORDER BY id LIMIT " + LOAD_PAGE_SIZE,
+                    rs -> {
+                        int count = 0;
+                        while (rs.next()) {
+                            cursor[0] = rs.getLong(1);
+                            markVoted(rs.getLong(2), rs.getLong(3));
+                            count++;
+                        }
+                        return count;
+                    },
+                    cursor[0]);
+            loaded += rows;
+        } while (rows == LOAD_PAGE_SIZE);
+        System.out.println("Voted-user index loaded " + loaded + " vote(s)");
+    }
+
+    public boolean hasVoted(Long electionId, Long userId) {
+        VoterBitmap bitmap = elections.get(electionId);
+        return bitmap != null && bitmap.contains(userId);
+    }
+
+    public void markVoted(Long electionId, Long userId) {
+        elections.computeIfAbsent(electionId, id -> new VoterBitmap()).add(userId);
+    }
+
+    public void prepareElection(Long electionId) {
+        elections.computeIfAbsent(electionId, id -> new VoterBitmap());
+    }
+
+    public void markVotedOnCommit(Long electionId, Long userId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            markVoted(electionId, userId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                markVoted(electionId, userId);
+            }
+        });
+    }
+
+    public void resetElection(Long electionId) {
+        elections.remove(electionId);
+    }
+
+    // Reloads one election, e.g. after some of its votes were deleted
+    public void rebuildElection(Long electionId) {
+        VoterBitmap bitmap = new VoterBitmap();
+        long[] cursor = { 0 };
+        int rows;
+        do {
+            rows = jdbcTemplate.query(
+                    "SELECT id, user_id FROM votes WHERE election_id = ? AND id > ? ORDER BY id LIMIT " + LOAD_PAGE_SIZE,
+                    rs -> {
+                        int count = 0;
+                        while (rs.next()) {
+                            cursor[0] = rs.getLong(1);
+                            bitmap.add(rs.getLong(2));
+                            count++;
+                        }
+                        return count;
+                    },
+                    electionId, cursor[0]);
+        } while (rows == LOAD_PAGE_SIZE);
+        elections.put(electionId, bitmap);
+    }
+
+    public Map<String, Object> getStats() {
+        long voters = 0;
+        long bytes = 0;
+        for (VoterBitmap bitmap : elections.values()) {
+            voters += bitmap.cardinality();
+            bytes += bitmap.sizeInBytes();
+        }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("elections", elections.size());
+        stats.put("voters", voters);
+        stats.put("estimatedBytes", bytes);
+        return stats;
+    }
+}
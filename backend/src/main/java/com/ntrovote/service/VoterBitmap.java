@@ -0,0 +1,133 @@
+package com.ntrovote.service;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Roaring-style set of user ids. Ids are split into a high key and a 16-bit low
+// part; each high key owns a container that is a sorted char array while sparse
+// (up to 4096 values, 8 KB) and a 65536-bit bitmap once dense. Reads are
+// lock-free; writers serialize on a per-bitmap lock and publish array containers
+// copy-on-write, while bitmap containers are updated with atomic ORs.
+final class VoterBitmap {
+
+    private static final int ARRAY_MAX = 4096;
+
+    private final Map<Long, Container> containers = new ConcurrentHashMap<>();
+
+    private final LongAdder cardinality = new LongAdder();
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    boolean contains(long id) {
+        Container container = containers.get(id >>> 16);
+        return container != null && container.contains((char) id);
+    }
+
+    // Returns false if the id was already present. A ReentrantLock rather than
+    // synchronized: contended monitors pin virtual threads to their carrier.
+    boolean add(long id) {
+        long high = id >>> 16;
+        char low = (char) id;
+        lock.lock();
+        try {
+            Container container = containers.get(high);
+            if (container == null) {
+                containers.put(high, new ArrayContainer(new char[] { low }));
+                cardinality.increment();
+                return true;
+            }
+            if (container.contains(low)) {
+                return false;
+            }
+            Container updated = container.add(low);
+            if (updated != container) {
+                containers.put(high, updated);
+            }
+            cardinality.increment();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long cardinality() {
+        return cardinality.sum();
+    }
+
+    long sizeInBytes() {
+        long bytes = 0;
+        for (Container container : containers.values()) {
+            bytes += container.sizeInBytes() + 48;
+        }
+        return bytes;
+    }
+
+    private interface Container {
+        boolean contains(char value);
+
+        // May return a new container; callers must publish it
+        Container add(char value);
+
+        long sizeInBytes();
+    }
+
+    private static final class ArrayContainer implements Container {
+        private final char[] values;
+
+        ArrayContainer(char[] values) {
+            this.values = values;
+        }
+
+        @Override
+        public boolean contains(char value) {
+            return Arrays.binarySearch(values, value) >= 0;
+        }
+
+        @Override
+        public Container add(char value) {
+            if (values.length >= ARRAY_MAX) {
+                BitmapContainer bitmap = new BitmapContainer();
+                for (char existing : values) {
+                    bitmap.add(existing);
+                }
+                return bitmap.add(value);
+            }
+            int insertAt = -Arrays.binarySearch(values, value) - 1;
+            char[] grown = new char[values.length + 1];
+            System.arraycopy(values, 0, grown, 0, insertAt);
+            grown[insertAt] = value;
+            System.arraycopy(values, insertAt, grown, insertAt + 1, values.length - insertAt);
+            return new ArrayContainer(grown);
+        }
+
+        @Override
+        public long sizeInBytes() {
+            return 16 + 16 + values.length * 2L;
+        }
+    }
+
+    private static final class BitmapContainer implements Container {
+        private final AtomicLongArray words = new AtomicLongArray(1024);
+
+        @Override
+        public boolean contains(char value) {
+            return (words.get(value >>> 6) & (1L << value)) != 0;
+        }
+
+        @Override
+        public Container add(char value) {
+            long bit = 1L << value;
+            words.getAndUpdate(value >>> 6, word -> word | bit);
+            return this;
+        }
+
+        @Override
+        public long sizeInBytes() {
+            return 16 + 16 + 1024 * 8L;
+        }
+    }
+}
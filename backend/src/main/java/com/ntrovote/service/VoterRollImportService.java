@@ -0,0 +1,261 @@
+package com.ntrovote.service;
+
+import com.ntrovote.model.PhoneNumber;
+import com.ntrovote.repository.EligibleVoterRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.IntConsumer;
+
+// Bulk load of the eligible voter roll from CSV ("phone,name" per line, header
+// optional). Phones are reduced to their canonical key and de-duplicated in
+// memory, then written with JDBC batches. "append" only adds new phones; "sync"
+// also removes phones that are missing from the file. A wrong delimiter or
+// column order parses to few valid rows, which sync would read as "remove
+// everyone", so a sync that looks like that is refused unless forced. A dry run
+// reports the diff without writing.
+@Service
+public class VoterRollImportService {
+
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EligibleVoterRepository eligibleVoterRepository;
+
+    @Autowired
+    private EligibilityIndex eligibilityIndex;
+
+    @Value("${voters.import.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${voters.import.sync.max-error-ratio:0.05}")
+    private double syncMaxErrorRatio;
+
+    @Value("${voters.import.sync.max-delete-ratio:0.10}")
+    private double syncMaxDeleteRatio;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private volatile ImportStatus status;
+
+    public enum Mode {
+        APPEND, SYNC
+    }
+
+    public Map<String, Object> importRoll(InputStream csv, Mode mode, boolean dryRun, boolean force)
+            throws IOException {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("An import is already running");
+        }
+        ImportStatus current = new ImportStatus(mode, dryRun);
+        status = current;
+        try {
+            Map<Long, String> rows = parse(csv, current);
+
+            current.phase = "diff";
+            Set<Long> existing = new HashSet<>(eligibleVoterRepository.findAllPhoneKeys());
+            List<Object[]> inserts = new ArrayList<>();
+            rows.forEach((phoneKey, name) -> {
+                if (!existing.contains(phoneKey)) {
+                    inserts.add(new Object[] { new PhoneNumber(phoneKey).toString(), phoneKey, name });
+                }
+            });
+            List<Object[]> deletes = new ArrayList<>();
+            if (mode == Mode.SYNC) {
+                for (Long phoneKey : existing) {
+                    if (!rows.containsKey(phoneKey)) {
+                        deletes.add(new Object[] { phoneKey });
+                    }
+                }
+            }
+            current.toInsert = inserts.size();
+            current.toDelete = deletes.size();
+            current.unchanged = rows.size() - inserts.size();
+
+            String refusal = mode == Mode.SYNC && !force ? syncRefusal(current, rows.size(), existing.size()) : null;
+            if (refusal != null) {
+                current.phase = "refused";
+                current.failure = refusal;
+            } else if (dryRun) {
+                current.phase = "dry-run";
+            } else {
+                current.phase = "insert";
+                writeInBatches("INSERT INTO eligible_voters (phone_number, phone_key, name) VALUES (?, ?, ?)", inserts,
+                        count -> current.inserted += count);
+                current.phase = "delete";
+                writeInBatches("DELETE FROM eligible_voters WHERE phone_key = ?", deletes,
+                        count -> current.deleted += count);
+
+                eligibilityIndex.rebuild();
+                current.phase = "completed";
+            }
+        } catch (RuntimeException | IOException e) {
+            current.phase = "failed";
+            current.failure = e.getMessage();
+            throw e;
+        } finally {
+            current.finishedAt = LocalDateTime.now();
+            running.set(false);
+        }
+        return current.toMap();
+    }
+
+    public Map<String, Object> getStatus() {
+        ImportStatus current = status;
+        return current == null ? Map.of("phase", "idle") : current.toMap();
+    }
+
+    // Null when the sync looks like a real roll update
+    private String syncRefusal(ImportStatus current, int validRows, int existing) {
+        if (validRows == 0) {
+            return "Sync refused: the file has no valid rows";
+        }
+        if (current.errorCount > current.rowsRead * syncMaxErrorRatio) {
+            return "Sync refused: " + current.errorCount + " of " + current.rowsRead
+                    + " rows are invalid or duplicated; check the file or pass force=true";
+        }
+        if (current.toDelete > existing * syncMaxDeleteRatio) {
+            return "Sync refused: it would remove " + current.toDelete + " of " + existing
+                    + " eligible voters; check with dryRun=true, then pass force=true";
+        }
+        return null;
+    }
+
+    private Map<Long, String> parse(InputStream csv, ImportStatus current) throws IOException {
+        current.phase = "parse";
+        // LinkedHashMap keeps file order for the inserts
+        Map<Long, String> rows = new LinkedHashMap<>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(csv, StandardCharsets.UTF_8));
+        String line;
+        long lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            List<String> fields = splitCsv(line);
+            String rawPhone = fields.get(0).trim();
+            if (lineNumber == 1 && rawPhone.toLowerCase().contains("phone")) {
+                continue;
+            }
+            current.rowsRead++;
+            long phoneKey = PhoneNumber.toKey(rawPhone);
+            if (phoneKey < 0) {
+                current.addError(lineNumber, rawPhone, "Invalid phone number");
+                continue;
+            }
+            if (rows.containsKey(phoneKey)) {
+                current.duplicates++;
+                current.addError(lineNumber, rawPhone, "Duplicate phone number in file");
+                continue;
+            }
+            rows.put(phoneKey, fields.size() > 1 && !fields.get(1).isBlank() ? fields.get(1).trim() : null);
+        }
+        return rows;
+    }
+
+    private void writeInBatches(String sql, List<Object[]> rows, IntConsumer progress) {
+        for (int from = 0; from < rows.size(); from += batchSize) {
+            List<Object[]> batch = rows.subList(from, Math.min(rows.size(), from + batchSize));
+            // One short transaction per batch keeps locks and undo small
+            transactionTemplate.executeWithoutResult(tx -> jdbcTemplate.batchUpdate(sql, batch));
+            progress.accept(batch.size());
+        }
+    }
+
+    // Splits one CSV line, honouring double-quoted fields
+    private static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>(2);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '"') {
+                if (quoted && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = !quoted;
+                }
+            } else if (c == ',' && !quoted) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static final class ImportStatus {
+        final Mode mode;
+        final boolean dryRun;
+        final LocalDateTime startedAt = LocalDateTime.now();
+        volatile LocalDateTime finishedAt;
+        volatile String phase = "starting";
+        volatile String failure;
+        volatile long rowsRead;
+        volatile long duplicates;
+        volatile long toInsert;
+        volatile long toDelete;
+        volatile long unchanged;
+        volatile long inserted;
+        volatile long deleted;
+        volatile long errorCount;
+        final List<Map<String, Object>> errors = Collections.synchronizedList(new ArrayList<>());
+
+        ImportStatus(Mode mode, boolean dryRun) {
+            this.mode = mode;
+            this.dryRun = dryRun;
+        }
+
+        void addError(long line, String value, String message) {
+            errorCount++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(Map.of("line", line, "value", value, "error", message));
+            }
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("mode", mode);
+            map.put("dryRun", dryRun);
+            map.put("phase", phase);
+            map.put("startedAt", startedAt);
+            map.put("finishedAt", finishedAt);
+            map.put("rowsRead", rowsRead);
+            map.put("duplicates", duplicates);
+            map.put("toInsert", toInsert);
+            map.put("inserted", inserted);
+            map.put("toDelete", toDelete);
+            map.put("deleted", deleted);
+            map.put("unchanged", unchanged);
+            map.put("errorCount", errorCount);
+            synchronized (errors) {
+                map.put("errors", new ArrayList<>(errors));
+            }
+            if (failure != null) {
+                map.put("failure", failure);
+            }
+            return map;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.ntrovote.sms;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import com.ntrovote.config.WorkerThreads;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Bounded asynchronous SMS queue. Request threads only enqueue; a small pool of
+// workers talks to the gateway, and failed sends are re-queued with exponential
+// backoff instead of holding a worker while they wait.
+@Component
+public class SmsDispatcher {
+
+    @Autowired
+    private SmsGateway smsGateway;
+
+    @Autowired
+    private WorkerThreads workerThreads;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${sms.dispatch.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${sms.dispatch.workers:4}")
+    private int workerCount;
+
+    @Value("${sms.dispatch.virtual-workers:64}")
+    private int virtualWorkerCount;
+
+    @Value("${sms.dispatch.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${sms.dispatch.initial-backoff-ms:500}")
+    private long initialBackoffMs;
+
+    private BlockingQueue<SmsMessage> queue;
+
+    private final List<Thread> workers = new ArrayList<>();
+
+    private final ScheduledExecutorService retryScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "sms-retry");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile boolean running = true;
+
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder retried = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder sendTimeNanos = new LongAdder();
+    private final AtomicLong maxSendTimeNanos = new AtomicLong();
+
+    @PostConstruct
+    public void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        meterRegistry.gauge("sms.queue.depth", queue, BlockingQueue::size);
+        // Sends block on the gateway's HTTP call, so virtual workers can be far more numerous
+        int count = workerThreads.isVirtual() ? virtualWorkerCount : workerCount;
+        ThreadFactory factory = workerThreads.factory("sms-dispatch");
+        for (int i = 0; i < count; i++) {
+            Thread worker = factory.newThread(this::work);
+            worker.start();
+            workers.add(worker);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        retryScheduler.shutdownNow();
+        workers.forEach(Thread::interrupt);
+    }
+
+    // Returns false when the queue is full so the caller can ask the user to retry
+    public boolean submit(String to, String body) {
+        boolean accepted = queue.offer(new SmsMessage(to, body, 1));
+        if (!accepted) {
+            rejected.increment();
+        }
+        return accepted;
+    }
+
+    private void work() {
+        while (running) {
+            SmsMessage message;
+            try {
+                message = queue.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            deliver(message);
+        }
+    }
+
+    private void deliver(SmsMessage message) {
+        long start = System.nanoTime();
+        String result = "sent";
+        try {
+            smsGateway.send(message.to(), message.body());
+            sent.increment();
+            System.out.println("SMS sent to " + message.to());
+        } catch (Exception e) {
+            if (message.attempt() < maxAttempts) {
+                result = "retried";
+                retried.increment();
+                long backoff = initialBackoffMs << (message.attempt() - 1);
+                SmsMessage retry = new SmsMessage(message.to(), message.body(), message.attempt() + 1);
+                retryScheduler.schedule(() -> {
+                    if (!queue.offer(retry)) {
+                        rejected.increment();
+                    }
+                }, backoff, TimeUnit.MILLISECONDS);
+            } else {
+                result = "failed";
+                failed.increment();
+                System.err.println("Failed to send SMS after " + message.attempt() + " attempt(s): " + e.getMessage());
+                // Fallback to console for development if SMS fails
+                System.out.println("SMS for " + message.to() + ": " + message.body());
+            }
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            sendTimeNanos.add(elapsed);
+            maxSendTimeNanos.accumulateAndGet(elapsed, Math::max);
+            meterRegistry.timer("sms.send", "result", result).record(elapsed, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    public Map<String, Object> getStats() {
+        long attempts = sent.sum() + failed.sum() + retried.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("queueDepth", queue.size());
+        stats.put("queueCapacity", queueCapacity);
+        stats.put("sent", sent.sum());
+        stats.put("failed", failed.sum());
+        stats.put("retried", retried.sum());
+        stats.put("rejected", rejected.sum());
+        stats.put("avgSendMillis", attempts == 0 ? 0.0 : sendTimeNanos.sum() / 1_000_000.0 / attempts);
+        stats.put("maxSendMillis", maxSendTimeNanos.get() / 1_000_000.0);
+        return stats;
+    }
+
+    private record SmsMessage(String to, String body, int attempt) {
+    }
+}
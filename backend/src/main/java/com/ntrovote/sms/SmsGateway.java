@@ -0,0 +1,7 @@
+package com.ntrovote.sms;
+
+// Delivers a single text message; implementations throw on failure so the
+// dispatcher can retry
+public interface SmsGateway {
+    void send(String to, String body);
+}
@@ -0,0 +1,15 @@
+package com.ntrovote.sms;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+// Local development gateway: prints messages instead of sending them
+@Component
+@ConditionalOnProperty(name = "sms.gateway", havingValue = "stub")
+public class StubSmsGateway implements SmsGateway {
+
+    @Override
+    public void send(String to, String body) {
+        System.out.println("[SMS stub] to " + to + ": " + body);
+    }
+}
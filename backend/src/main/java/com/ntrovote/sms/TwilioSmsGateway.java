@@ -0,0 +1,39 @@
+package com.ntrovote.sms;
+
+import com.twilio.http.TwilioRestClient;
+import com.twilio.rest.api.v2010.account.Message;
+import com.twilio.type.PhoneNumber;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConditionalOnProperty(name = "sms.gateway", havingValue = "twilio", matchIfMissing = true)
+public class TwilioSmsGateway implements SmsGateway {
+
+    @Value("${twilio.account_sid}")
+    private String twilioAccountSid;
+
+    @Value("${twilio.auth_token}")
+    private String twilioAuthToken;
+
+    @Value("${twilio.phone_number}")
+    private String twilioPhoneNumber;
+
+    // Built once and shared by all dispatch workers (keeps its HTTP connection pool)
+    private TwilioRestClient client;
+
+    private PhoneNumber from;
+
+    @PostConstruct
+    public void init() {
+        client = new TwilioRestClient.Builder(twilioAccountSid, twilioAuthToken).build();
+        from = new PhoneNumber(twilioPhoneNumber.startsWith("+") ? twilioPhoneNumber : "+" + twilioPhoneNumber);
+    }
+
+    @Override
+    public void send(String to, String body) {
+        Message.creator(new PhoneNumber(to), from, body).create(client);
+    }
+}
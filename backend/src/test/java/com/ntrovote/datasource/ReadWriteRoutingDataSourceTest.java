@@ -0,0 +1,178 @@
+package com.ntrovote.datasource;
+
+import com.ntrovote.model.Election;
+import com.ntrovote.repository.ElectionRepository;
+import com.ntrovote.service.ElectionService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Two H2 databases stand in for the primary and the replica. Nothing replicates
+// between them except the heartbeat row, which the test copies by hand, so
+// where a row is visible shows which database served the read.
+@SpringBootTest(properties = {
+        "spring.datasource.url=" + ReadWriteRoutingDataSourceTest.PRIMARY_URL,
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "datasource.replica.enabled=true",
+        "datasource.replica.url=" + ReadWriteRoutingDataSourceTest.REPLICA_URL,
+        "datasource.replica.max-lag-ms=1000",
+        "datasource.replica.heartbeat-ms=100",
+        "election.scheduler.enabled=false",
+        "jwt.secret=0123456789abcdef0123456789abcdef0123456789abcdef",
+        "twilio.account_sid=AC000",
+        "twilio.auth_token=test",
+        "twilio.phone_number=+10000000000",
+        "cors.allowed.origins=http://localhost" })
+class ReadWriteRoutingDataSourceTest {
+
+    static final String PRIMARY_URL = "jdbc:h2:mem:routing-primary;MODE=MySQL;DB_CLOSE_DELAY=-1";
+
+    static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;MODE=MySQL;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ElectionService electionService;
+
+    @Autowired
+    private ElectionRepository electionRepository;
+
+    @Autowired
+    private ReplicaLagMonitor replicaLagMonitor;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+
+    private volatile boolean replicating;
+
+    private Thread replicator;
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        // Outside a transaction, so this reads the primary's schema
+        List<String> schema = jdbcTemplate.queryForList("SCRIPT NODATA", String.class);
+        schema.forEach(replica::execute);
+
+        replicating = true;
+        replicator = new Thread(() -> {
+            while (replicating) {
+                List<Long> beat = jdbcTemplate.queryForList("SELECT beat_at FROM replica_heartbeat WHERE id = 1", Long.class);
+                if (!beat.isEmpty()) {
+                    replica.update("MERGE INTO replica_heartbeat KEY (id) VALUES (1, ?)", beat.get(0));
+                }
+                try {
+                    Thread.sleep(20);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        });
+        replicator.start();
+        awaitUsable(true);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        replicating = false;
+        replicator.join();
+        replica.execute("DROP ALL OBJECTS");
+        jdbcTemplate.update("DELETE FROM elections");
+    }
+
+    @Test
+    void readOnlyServiceReadsGoToReplica() {
+        double replicaRoutes = routed("replica");
+
+        electionService.createElection(election("Primary only"));
+
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM elections", Long.class));
+        assertEquals(0, replica.queryForObject("SELECT COUNT(*) FROM elections", Long.class));
+        // A read-only service transaction, picked up through the lazy proxy
+        assertEquals(0, electionService.getAllElections().size());
+        assertTrue(routed("replica") > replicaRoutes);
+    }
+
+    // Spring Data's own read-only transactions usually precede a write
+    @Test
+    void repositoryReadsGoToPrimary() {
+        electionService.createElection(election("Primary only"));
+
+        assertEquals(1, electionRepository.findAll().size());
+        assertEquals(1, electionRepository.count());
+    }
+
+    // Open-in-view keeps one session for the request; its connection must still
+    // be released after the read-only transaction so the write gets the primary
+    @Test
+    void writeAfterReadInOneSessionGoesToPrimary() {
+        TransactionSynchronizationManager.bindResource(entityManagerFactory,
+                new EntityManagerHolder(entityManagerFactory.createEntityManager()));
+        try {
+            assertEquals(0, electionService.getAllElections().size());
+            electionService.createElection(election("After a read"));
+        } finally {
+            EntityManagerHolder holder =
+                    (EntityManagerHolder) TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+            holder.getEntityManager().close();
+        }
+
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM elections", Long.class));
+        assertEquals(0, replica.queryForObject("SELECT COUNT(*) FROM elections", Long.class));
+    }
+
+    @Test
+    void laggingReplicaFallsBackToPrimary() throws InterruptedException {
+        electionService.createElection(election("Primary only"));
+        assertEquals(0, electionService.getAllElections().size());
+
+        replicating = false;
+        replicator.join();
+        awaitUsable(false);
+        double fallbackRoutes = routed("fallback");
+
+        assertEquals(1, electionService.getAllElections().size());
+        assertTrue(routed("fallback") > fallbackRoutes);
+    }
+
+    private void awaitUsable(boolean usable) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (replicaLagMonitor.isReplicaUsable() != usable && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(usable, replicaLagMonitor.isReplicaUsable());
+    }
+
+    private double routed(String route) {
+        return meterRegistry.counter("datasource.routed", "route", route).count();
+    }
+
+    private static Election election(String title) {
+        Election election = new Election();
+        election.setTitle(title);
+        return election;
+    }
+}
@@ -0,0 +1,64 @@
+package com.ntrovote.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PhoneNumberTest {
+
+    @Test
+    void internationalNumberKeepsItsDigits() {
+        assertEquals(919876543210L, PhoneNumber.toKey("+919876543210"));
+        assertEquals(14155550100L, PhoneNumber.toKey("+14155550100"));
+    }
+
+    @Test
+    void nationalNumberGetsDefaultCountryCode() {
+        assertEquals(919876543210L, PhoneNumber.toKey("9876543210"));
+    }
+
+    // A single domestic trunk '0' is dropped, a second one is kept
+    @Test
+    void trunkZeroIsDropped() {
+        assertEquals(919876543210L, PhoneNumber.toKey("09876543210"));
+        assertEquals(919876543210L, PhoneNumber.toKey("0 98765 43210"));
+        assertEquals(9109876543210L, PhoneNumber.toKey("009876543210"));
+    }
+
+    @Test
+    void separatorsAreSkipped() {
+        assertEquals(919876543210L, PhoneNumber.toKey("+91 98765-43210"));
+        assertEquals(919876543210L, PhoneNumber.toKey(" (098) 765.432 10 "));
+        assertEquals(14155550100L, PhoneNumber.toKey("+1 (415) 555-0100"));
+        assertEquals(919876543210L, PhoneNumber.toKey("\t+91 98765\n43210"));
+    }
+
+    @Test
+    void atMostFifteenDigits() {
+        assertEquals(123456789012345L, PhoneNumber.toKey("+123456789012345"));
+        assertEquals(-1, PhoneNumber.toKey("+1234567890123456"));
+        // The default country code counts towards the limit
+        assertEquals(919876543210123L, PhoneNumber.toKey("9876543210123"));
+        assertEquals(-1, PhoneNumber.toKey("98765432101234"));
+        // A dropped trunk '0' does not
+        assertEquals(919876543210123L, PhoneNumber.toKey("09876543210123"));
+    }
+
+    @Test
+    void invalidNumbers() {
+        assertEquals(-1, PhoneNumber.toKey(null));
+        assertEquals(-1, PhoneNumber.toKey(""));
+        assertEquals(-1, PhoneNumber.toKey("+"));
+        assertEquals(-1, PhoneNumber.toKey("+0919876543210"));
+        assertEquals(-1, PhoneNumber.toKey("+123456"));
+        assertEquals(-1, PhoneNumber.toKey("98765x43210"));
+        assertEquals(-1, PhoneNumber.toKey("+91+9876543210"));
+    }
+
+    @Test
+    void parseRejectsInvalidAndPrintsCanonically() {
+        assertEquals("+919876543210", PhoneNumber.parse("098765 43210").toString());
+        assertThrows(RuntimeException.class, () -> PhoneNumber.parse("12"));
+    }
+}
@@ -0,0 +1,76 @@
+package com.ntrovote.otp;
+
+import com.ntrovote.model.PhoneNumber;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class InMemoryOtpStoreTest {
+
+    private static final PhoneNumber PHONE = PhoneNumber.parse("+919876543210");
+
+    private final InMemoryOtpStore store = new InMemoryOtpStore();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(store, "maxEntries", 2);
+        ReflectionTestUtils.setField(store, "tickMillis", 10L);
+        store.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        store.stop();
+    }
+
+    @Test
+    void validCodeIsConsumedOnce() {
+        store.save(PHONE, "012345", LocalDateTime.now().plusMinutes(5));
+
+        assertEquals(OtpStore.VerifyResult.INVALID, store.verify(PHONE, "012346"));
+        assertEquals(OtpStore.VerifyResult.INVALID, store.verify(PHONE, "12345"));
+        assertEquals(OtpStore.VerifyResult.VALID, store.verify(PHONE, "012345"));
+        assertEquals(OtpStore.VerifyResult.NOT_FOUND, store.verify(PHONE, "012345"));
+    }
+
+    @Test
+    void expiredCodeIsRejectedThenReclaimed() throws InterruptedException {
+        store.save(PHONE, "123456", LocalDateTime.now().plusNanos(50_000_000));
+        Thread.sleep(60);
+
+        // Rejected as soon as it is past its time, whether or not the wheel got to it
+        OtpStore.VerifyResult result = store.verify(PHONE, "123456");
+        assertEquals(true, result == OtpStore.VerifyResult.EXPIRED || result == OtpStore.VerifyResult.NOT_FOUND);
+
+        long deadline = System.currentTimeMillis() + 2_000;
+        while (!store.getStats().get("tracked").equals(0) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, store.getStats().get("entries"));
+        assertEquals(0, store.getStats().get("tracked"));
+        assertEquals(OtpStore.VerifyResult.NOT_FOUND, store.verify(PHONE, "123456"));
+    }
+
+    // A replaced code still counts until the wheel reclaims it
+    @Test
+    void pendingEntriesAreCapped() throws InterruptedException {
+        store.save(PHONE, "111111", LocalDateTime.now().plusNanos(50_000_000));
+        store.save(PHONE, "222222", LocalDateTime.now().plusNanos(50_000_000));
+
+        assertThrows(RuntimeException.class,
+                () -> store.save(PhoneNumber.parse("+919876543211"), "333333", LocalDateTime.now().plusMinutes(5)));
+
+        long deadline = System.currentTimeMillis() + 2_000;
+        while (!store.getStats().get("tracked").equals(0) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        store.save(PhoneNumber.parse("+919876543211"), "333333", LocalDateTime.now().plusMinutes(5));
+        assertEquals(OtpStore.VerifyResult.VALID, store.verify(PhoneNumber.parse("+919876543211"), "333333"));
+    }
+}
@@ -0,0 +1,72 @@
+package com.ntrovote.otp;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimingWheelTest {
+
+    private static final long TICK = 1000;
+
+    private final List<OtpEntry> expired = new ArrayList<>();
+
+    private final TimingWheel wheel = new TimingWheel(TICK, 0, expired::add);
+
+    @Test
+    void expiresOnItsDeadlineTick() {
+        OtpEntry entry = schedule(5_500);
+
+        wheel.advanceTo(5_999);
+        assertTrue(expired.isEmpty());
+
+        wheel.advanceTo(6_000);
+        assertEquals(List.of(entry), expired);
+    }
+
+    @Test
+    void pastDeadlineExpiresOnNextTick() {
+        wheel.advanceTo(10_000);
+        OtpEntry entry = schedule(3_000);
+
+        wheel.advanceTo(11_000);
+        assertEquals(List.of(entry), expired);
+    }
+
+    // 10 minutes sits on the second level, 2 hours on the third, 4 days beyond
+    // the third level's range; each cascades down and fires on time. So do
+    // deadlines on the upper levels' slot boundaries (64, 4096 and 262144
+    // ticks), which fall due on the tick their slot cascades
+    @Test
+    void longDeadlinesCascadeDown() {
+        for (long expiresAt : new long[] { 64_000, 600_000, 4_096_000, 7_200_000, 262_144_000, 345_600_000 }) {
+            expired.clear();
+            OtpEntry entry = schedule(expiresAt);
+
+            wheel.advanceTo(expiresAt - TICK);
+            assertTrue(expired.isEmpty(), "early expiry for " + expiresAt);
+
+            wheel.advanceTo(expiresAt);
+            assertEquals(List.of(entry), expired);
+        }
+    }
+
+    @Test
+    void entriesExpireInDeadlineOrder() {
+        OtpEntry later = schedule(90_000);
+        OtpEntry sooner = schedule(30_000);
+        OtpEntry soonest = schedule(2_000);
+
+        wheel.advanceTo(100_000);
+        assertEquals(List.of(soonest, sooner, later), expired);
+    }
+
+    private OtpEntry schedule(long expiresAtMillis) {
+        OtpEntry entry = new OtpEntry(919876543210L, 123456, expiresAtMillis);
+        wheel.schedule(entry);
+        return entry;
+    }
+}
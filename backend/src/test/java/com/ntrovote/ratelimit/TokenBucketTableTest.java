@@ -0,0 +1,69 @@
+package com.ntrovote.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketTableTest {
+
+    // Eight slots: the whole table is a single probe window
+    private static final int ONE_WINDOW = 8;
+
+    @Test
+    void retryAfterIsTimeUntilNextToken() {
+        TokenBucketTable table = new TokenBucketTable("test", 3, 60_000, 100);
+
+        assertEquals(0, table.tryAcquire(42));
+        assertEquals(0, table.tryAcquire(42));
+        assertEquals(0, table.tryAcquire(42));
+
+        // One token per 20 s
+        long wait = table.tryAcquire(42);
+        assertTrue(wait > 19_000 && wait <= 20_000, "wait " + wait);
+        // Other keys have their own buckets
+        assertEquals(0, table.tryAcquire(43));
+    }
+
+    @Test
+    void bucketRefillsOverPeriod() throws InterruptedException {
+        TokenBucketTable table = new TokenBucketTable("test", 1, 50, 100);
+
+        assertEquals(0, table.tryAcquire(7));
+        long wait = table.tryAcquire(7);
+        assertTrue(wait >= 1 && wait <= 50, "wait " + wait);
+
+        Thread.sleep(wait + 20);
+        assertEquals(0, table.tryAcquire(7));
+    }
+
+    @Test
+    void fullWindowRejectsNewKeyInsteadOfEvicting() {
+        TokenBucketTable table = new TokenBucketTable("test", 1, 60_000, ONE_WINDOW);
+        for (long key = 1; key <= ONE_WINDOW; key++) {
+            assertEquals(0, table.tryAcquire(key));
+        }
+
+        long wait = table.tryAcquire(ONE_WINDOW + 1);
+        assertTrue(wait > 59_000 && wait <= 60_000, "wait " + wait);
+        assertEquals(0, table.evictions());
+        assertEquals(1L, table.getStats().get("overflows"));
+        // The busy buckets were not reset by the newcomer
+        for (long key = 1; key <= ONE_WINDOW; key++) {
+            assertTrue(table.tryAcquire(key) > 0);
+        }
+    }
+
+    @Test
+    void fullWindowReplacesRefilledBucket() throws InterruptedException {
+        TokenBucketTable table = new TokenBucketTable("test", 1, 50, ONE_WINDOW);
+        for (long key = 1; key <= ONE_WINDOW; key++) {
+            assertEquals(0, table.tryAcquire(key));
+        }
+
+        Thread.sleep(100);
+        assertEquals(0, table.tryAcquire(ONE_WINDOW + 1));
+        assertEquals(1, table.evictions());
+        assertEquals(ONE_WINDOW, table.occupied());
+    }
+}
@@ -0,0 +1,96 @@
+package com.ntrovote.service;
+
+import com.ntrovote.config.WorkerThreads;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Clients that stop reading must not hold up the sends to everyone else, even
+// when there are at least as many of them as sender threads
+class ResultsStreamServiceTest {
+
+    private static final int SEND_THREADS = 2;
+
+    private final CountDownLatch unstall = new CountDownLatch(1);
+
+    private boolean nextStalled;
+
+    private ResultsStreamService service;
+
+    @AfterEach
+    void tearDown() {
+        unstall.countDown();
+        service.stop();
+    }
+
+    @Test
+    void stalledClientsDoNotStarveOthers() throws Exception {
+        service = new ResultsStreamService() {
+            @Override
+            SseEmitter newEmitter() {
+                return nextStalled ? new StalledEmitter() : new RecordingEmitter();
+            }
+        };
+        VoteService voteService = mock(VoteService.class);
+        when(voteService.getElectionResults(anyLong()))
+                .thenReturn(List.of(Map.of("nomineeId", 1L, "count", 0L)));
+        ReflectionTestUtils.setField(service, "voteService", voteService);
+        ReflectionTestUtils.setField(service, "transactionManager", mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(service, "workerThreads", new WorkerThreads(false));
+        ReflectionTestUtils.setField(service, "timeoutMs", 60_000L);
+        ReflectionTestUtils.setField(service, "heartbeatMs", 60_000L);
+        ReflectionTestUtils.setField(service, "sendThreads", SEND_THREADS);
+        ReflectionTestUtils.setField(service, "sendTimeoutMs", 100L);
+        service.start();
+
+        nextStalled = true;
+        for (int i = 0; i < SEND_THREADS + 1; i++) {
+            service.subscribe(1L);
+        }
+        nextStalled = false;
+        RecordingEmitter healthy = (RecordingEmitter) service.subscribe(1L);
+
+        Thread.sleep(200);
+        service.tick();
+
+        assertTrue(healthy.sent.await(5, TimeUnit.SECONDS), "healthy subscriber never got its snapshot");
+
+        // The stalled client that was still queued got a thread too and is dropped next
+        Thread.sleep(200);
+        service.tick();
+        assertEquals(1, service.getSubscriberCount());
+    }
+
+    private class StalledEmitter extends SseEmitter {
+        @Override
+        public void send(SseEventBuilder builder) {
+            try {
+                unstall.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+        final CountDownLatch sent = new CountDownLatch(1);
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            sent.countDown();
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.ntrovote.service;
+
+import com.ntrovote.config.ElectionTimeZone;
+import com.ntrovote.config.MetricsConfig;
+import com.ntrovote.metrics.QueryCounter;
+import com.ntrovote.model.Election;
+import com.ntrovote.model.Nominee;
+import com.ntrovote.model.PhoneNumber;
+import com.ntrovote.model.User;
+import com.ntrovote.model.Vote;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Results and finalization must issue the same number of statements whatever
+// the length of the ballot
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false" })
+@Import({ MetricsConfig.class, ElectionTimeZone.class, VoteService.class, VoteTallyService.class,
+        ResultSnapshotService.class, ElectionService.class })
+class VoteServiceResultsTest {
+
+    @Autowired
+    private VoteService voteService;
+
+    @Autowired
+    private VoteTallyService voteTallyService;
+
+    @Autowired
+    private ElectionService electionService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @MockBean
+    private VotedUserIndex votedUserIndex;
+
+    @MockBean
+    private BallotCache ballotCache;
+
+    private long nextPhone = 919800000000L;
+
+    // Default path: live tally plus the election's nominees
+    @Test
+    void resultsStatementCountDoesNotGrowWithBallot() {
+        long small = statementsForResults(2);
+        long large = statementsForResults(50);
+
+        assertEquals(small, large);
+    }
+
+    // vote.tally.enabled=false: one grouped count from the votes table
+    @Test
+    void databaseResultsStatementCountDoesNotGrowWithBallot() {
+        VoteService target = AopTestUtils.getTargetObject(voteService);
+        ReflectionTestUtils.setField(target, "tallyEnabled", false);
+
+        long small = statementsForResults(2);
+        long large = statementsForResults(50);
+
+        assertEquals(small, large);
+    }
+
+    @Test
+    void finalizeStatementCountDoesNotGrowWithBallot() {
+        long small = statementsForFinalize(2);
+        long large = statementsForFinalize(50);
+
+        assertEquals(small, large);
+    }
+
+    private long statementsForResults(int nominees) {
+        Long electionId = electionWithOneVotePerNominee(nominees);
+        voteTallyService.rebuildElection(electionId);
+        entityManager.clear();
+
+        QueryCounter.reset();
+        List<Map<String, Object>> results = voteService.getElectionResults(electionId);
+        long statements = QueryCounter.current();
+
+        assertEquals(nominees, results.size());
+        results.forEach(row -> assertEquals(1L, row.get("count")));
+        return statements;
+    }
+
+    private long statementsForFinalize(int nominees) {
+        Long electionId = electionWithOneVotePerNominee(nominees);
+        entityManager.clear();
+
+        QueryCounter.reset();
+        Election finalized = electionService.finalizeElection(electionId);
+        entityManager.flush();
+        long statements = QueryCounter.current();
+
+        assertEquals(Election.ElectionStatus.CLOSED, finalized.getStatus());
+        return statements;
+    }
+
+    private Long electionWithOneVotePerNominee(int nominees) {
+        Election election = new Election();
+        election.setTitle("Ballot of " + nominees);
+        election.setStatus(Election.ElectionStatus.ONGOING);
+        entityManager.persist(election);
+        for (int i = 0; i < nominees; i++) {
+            Nominee nominee = new Nominee();
+            nominee.setElection(election);
+            nominee.setName("Nominee " + i);
+            entityManager.persist(nominee);
+
+            User user = entityManager.persist(new User(PhoneNumber.parse("+" + nextPhone++)));
+            Vote vote = new Vote();
+            vote.setUser(user);
+            vote.setElection(election);
+            vote.setNominee(nominee);
+            entityManager.persist(vote);
+        }
+        entityManager.flush();
+        return election.getId();
+    }
+}
@@ -0,0 +1,96 @@
+package com.ntrovote.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VoterBitmapTest {
+
+    // One container's worth of bytes: 32 of headers plus 8 KB of data, and 48 of map entry
+    private static final long FULL_CONTAINER_BYTES = 32 + 8192 + 48;
+
+    @Test
+    void addsAcrossContainers() {
+        VoterBitmap bitmap = new VoterBitmap();
+
+        assertTrue(bitmap.add(1));
+        assertTrue(bitmap.add(65_536));
+        assertTrue(bitmap.add(5_000_000_000L));
+        assertFalse(bitmap.add(65_536));
+
+        assertTrue(bitmap.contains(1));
+        assertTrue(bitmap.contains(65_536));
+        assertTrue(bitmap.contains(5_000_000_000L));
+        // Same low part, other containers
+        assertFalse(bitmap.contains(65_537));
+        assertFalse(bitmap.contains(5_000_000_000L + 65_536));
+        assertEquals(3, bitmap.cardinality());
+    }
+
+    @Test
+    void arrayContainerKeepsValuesSorted() {
+        VoterBitmap bitmap = new VoterBitmap();
+        for (long id = 1000; id > 0; id -= 7) {
+            bitmap.add(id);
+        }
+
+        for (long id = 0; id <= 1000; id++) {
+            assertEquals((1000 - id) % 7 == 0, bitmap.contains(id), "id " + id);
+        }
+        assertEquals(143, bitmap.cardinality());
+        assertEquals(32 + 143 * 2 + 48, bitmap.sizeInBytes());
+    }
+
+    // Every other low value, so the 4097th add converts the array to a bitmap
+    @Test
+    void arrayTurnsIntoBitmapPastFourThousandValues() {
+        VoterBitmap bitmap = new VoterBitmap();
+        for (long id = 0; id < 2 * 4096; id += 2) {
+            bitmap.add(id);
+        }
+        assertEquals(FULL_CONTAINER_BYTES, bitmap.sizeInBytes());
+
+        assertTrue(bitmap.add(65_535));
+        for (long id = 0; id < 2 * 4096; id++) {
+            assertEquals(id % 2 == 0, bitmap.contains(id), "id " + id);
+        }
+        assertTrue(bitmap.contains(65_535));
+        assertFalse(bitmap.add(65_535));
+        assertFalse(bitmap.add(4094));
+        assertEquals(4097, bitmap.cardinality());
+
+        // A bitmap container doesn't grow with its contents
+        for (long id = 2 * 4096; id < 65_535; id++) {
+            bitmap.add(id);
+        }
+        assertEquals(4097 + 65_535 - 2 * 4096, bitmap.cardinality());
+        assertEquals(FULL_CONTAINER_BYTES, bitmap.sizeInBytes());
+    }
+
+    @Test
+    void concurrentAddsCountEachIdOnce() throws InterruptedException {
+        VoterBitmap bitmap = new VoterBitmap();
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        for (int thread = 0; thread < 4; thread++) {
+            pool.execute(() -> {
+                for (long id = 0; id < 20_000; id++) {
+                    bitmap.add(id);
+                }
+            });
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(20_000, bitmap.cardinality());
+        for (long id = 0; id < 20_000; id++) {
+            assertTrue(bitmap.contains(id));
+        }
+        assertFalse(bitmap.contains(20_000));
+    }
+}
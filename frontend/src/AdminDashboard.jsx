@@ -98,7 +98,7 @@ const AdminDashboard = () => {
             setShowCreate(false);
             fetchElections();
         } catch (error) {
-            alert('Failed to create election');
+            alert(error.response?.data?.error || 'Failed to create election');
         }
     };
 
@@ -136,8 +136,8 @@ const AdminDashboard = () => {
     const handleReset = async (id) => {
         if (!window.confirm("Reset votes for this election?")) return;
         try {
-            await api.post(`/elections/admin/${id}/reset`);
-            alert('Votes reset');
+            const res = await api.post(`/elections/admin/${id}/reset`);
+            alert(res.data.message);
         } catch (error) {
             alert('Failed to reset');
         }
@@ -314,6 +314,26 @@ const AdminDashboard = () => {
                                     value={newElection.description}
                                     onChange={e => setNewElection({ ...newElection, description: e.target.value })}
                                 />
+                                <div className="flex flex-col md:flex-row gap-3 mb-3">
+                                    <label className="flex-1 text-sm text-gray-700">
+                                        Opens at (optional)
+                                        <input
+                                            type="datetime-local"
+                                            className="w-full p-3 mt-1 border border-gray-300 rounded-lg"
+                                            value={newElection.startAt}
+                                            onChange={e => setNewElection({ ...newElection, startAt: e.target.value })}
+                                        />
+                                    </label>
+                                    <label className="flex-1 text-sm text-gray-700">
+                                        Closes and finalizes at (optional)
+                                        <input
+                                            type="datetime-local"
+                                            className="w-full p-3 mt-1 border border-gray-300 rounded-lg"
+                                            value={newElection.endAt}
+                                            onChange={e => setNewElection({ ...newElection, endAt: e.target.value })}
+                                        />
+                                    </label>
+                                </div>
                                 <button
                                     onClick={handleCreate}
                                     className="bg-green-600 text-white px-6 py-2 rounded-lg hover:bg-green-700"
@@ -411,7 +431,7 @@ const AdminDashboard = () => {
                                                     <div key={nominee.nomineeId} className={`p-4 rounded border-2 ${index === 0 ? 'border-yellow-400 bg-yellow-50' : 'border-gray-200'}`}>
                                                         <div className="flex items-center gap-3">
                                                             <img
-                                                                src={`${API_BASE_URL}${nominee.imageUrl}`}
+                                                                src={`${API_BASE_URL}${nominee.thumbnailUrl || nominee.imageUrl}`}
                                                                 alt={nominee.name}
                                                                 className="w-16 h-16 object-cover rounded-full border-2 border-gray-300"
                                                             />
@@ -486,7 +506,10 @@ const AdminDashboard = () => {
                                     <div>
                                         <h2 className="text-xl font-bold">{election.title}</h2>
                                         <p className="text-gray-600">{election.description}</p>
-                                        <span className={`inline-block px-2 py-1 rounded text-sm mt-2 ${election.status === 'ONGOING' ? 'bg-green-100 text-green-800' : 'bg-red-100 text-red-800'}`}>{election.status}</span>
+                                        <span className={`inline-block px-2 py-1 rounded text-sm mt-2 ${election.status === 'ONGOING' ? 'bg-green-100 text-green-800' : election.status === 'SCHEDULED' ? 'bg-blue-100 text-blue-800' : 'bg-red-100 text-red-800'}`}>{election.status}</span>
+                                        {election.status === 'SCHEDULED' && election.startAt && (
+                                            <span className="ml-2 text-sm text-gray-600">Opens {new Date(election.startAt).toLocaleString()}</span>
+                                        )}
                                         {election.winnerId && (
                                             <div className="mt-2 text-sm text-green-700 font-bold">
                                                 Winner: {election.nominees.find(n => n.id === election.winnerId)?.name || 'N/A'}
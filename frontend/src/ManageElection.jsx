@@ -10,10 +10,58 @@ const ManageElection = () => {
 
     useEffect(() => {
         fetchData();
-        const interval = setInterval(fetchResults, 5000); // Poll results
-        return () => clearInterval(interval);
+        // Live results over SSE; fall back to polling if the stream fails
+        const controller = new AbortController();
+        let interval = null;
+        streamResults(controller.signal).catch(() => {
+            if (!controller.signal.aborted) {
+                interval = setInterval(fetchResults, 5000);
+            }
+        });
+        return () => {
+            controller.abort();
+            if (interval) clearInterval(interval);
+        };
     }, [id]);
 
+    // EventSource can't send the Authorization header, so read the stream with fetch
+    const streamResults = async (signal) => {
+        const res = await fetch(`${API_BASE_URL}/elections/admin/${id}/results/stream`, {
+            headers: { Authorization: `Bearer ${localStorage.getItem('token')}` },
+            signal
+        });
+        if (!res.ok || !res.body) throw new Error('stream unavailable');
+        const reader = res.body.pipeThrough(new TextDecoderStream()).getReader();
+        let buffer = '';
+        while (true) {
+            const { value, done } = await reader.read();
+            if (done) throw new Error('stream closed');
+            buffer += value;
+            let end;
+            while ((end = buffer.indexOf('\n\n')) >= 0) {
+                handleEvent(buffer.slice(0, end));
+                buffer = buffer.slice(end + 2);
+            }
+        }
+    };
+
+    const handleEvent = (block) => {
+        let name = 'message';
+        let data = '';
+        block.split('\n').forEach(line => {
+            if (line.startsWith('event:')) name = line.slice(6).trim();
+            else if (line.startsWith('data:')) data += line.slice(5);
+        });
+        if (!data) return;
+        const payload = JSON.parse(data);
+        if (name === 'snapshot') {
+            setResults(payload);
+        } else if (name === 'delta') {
+            const counts = new Map(payload.map(d => [d.nomineeId, d.count]));
+            setResults(prev => prev.map(r => counts.has(r.nomineeId) ? { ...r, count: counts.get(r.nomineeId) } : r));
+        }
+    };
+
     const fetchData = async () => {
         try {
             const res = await api.get(`/elections/${id}`);
@@ -98,7 +146,7 @@ const ManageElection = () => {
                         {election.nominees.map(nominee => (
                             <div key={nominee.id} className="flex items-center bg-white p-4 rounded shadow border">
                                 <img
-                                    src={`${API_BASE_URL}${nominee.imageUrl}`}
+                                    src={`${API_BASE_URL}${nominee.thumbnailUrl || nominee.imageUrl}`}
                                     alt={nominee.name}
                                     className="w-16 h-16 object-cover rounded mr-4"
                                 />